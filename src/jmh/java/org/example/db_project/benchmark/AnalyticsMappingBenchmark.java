@@ -0,0 +1,129 @@
+package org.example.db_project.benchmark;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.example.db_project.DbProjectApplication;
+import org.example.db_project.dto.response.DailyRevenueResponse;
+import org.example.db_project.dto.response.SessionOccupancyResponse;
+import org.example.db_project.service.AnalyticsService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the typed row mappers in {@link AnalyticsService} with the previous mapping of
+ * native query {@code Object[]} rows, which went through {@code toString()} for every
+ * numeric column. Run with {@code -Pjmh.args="-prof gc"} to see allocations per call;
+ * divide by the row counts printed at setup for a per-row figure.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AnalyticsMappingBenchmark {
+    private static final int DAYS = 365;
+    // Same statements as AnalyticsService, so only the row mapping differs.
+    private static final String DAILY_REVENUE_LEGACY_SQL = """
+            SELECT revenue_date, SUM(bookings_count), SUM(revenue), SUM(tickets_sold)
+            FROM daily_hall_type_revenue
+            WHERE revenue_date >= CURRENT_DATE - CAST(:days AS integer)
+            GROUP BY revenue_date
+            HAVING SUM(bookings_count) > 0
+            ORDER BY revenue_date DESC
+            """;
+    private static final String SESSION_OCCUPANCY_LEGACY_SQL = """
+            SELECT s.id, m.title, h.name, h.capacity, COUNT(DISTINCT bs.seat_id),
+                   ROUND(COUNT(DISTINCT bs.seat_id)::numeric / h.capacity * 100, 2)
+            FROM sessions s
+            JOIN movies m ON s.movie_id = m.id
+            JOIN halls h ON s.hall_id = h.id
+            LEFT JOIN bookings b ON s.id = b.session_id AND b.status NOT IN ('CANCELLED', 'EXPIRED')
+            LEFT JOIN booking_seats bs ON b.id = bs.booking_id
+            WHERE s.status = 'SCHEDULED'
+            AND s.start_time > CURRENT_TIMESTAMP
+            GROUP BY s.id, m.title, h.name, h.capacity
+            ORDER BY s.start_time
+            """;
+
+    private ConfigurableApplicationContext context;
+    private AnalyticsService analyticsService;
+    private EntityManagerFactory entityManagerFactory;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(DbProjectApplication.class)
+                .profiles("benchmark")
+                .web(WebApplicationType.NONE)
+                .run();
+        analyticsService = context.getBean(AnalyticsService.class);
+        entityManagerFactory = context.getBean(EntityManagerFactory.class);
+        System.out.printf("daily revenue rows: %d, session occupancy rows: %d%n",
+                analyticsService.getDailyRevenue(DAYS).size(),
+                analyticsService.getSessionOccupancyStats().size());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<DailyRevenueResponse> dailyRevenueTyped() {
+        return analyticsService.getDailyRevenue(DAYS);
+    }
+
+    @Benchmark
+    @SuppressWarnings("unchecked")
+    public List<DailyRevenueResponse> dailyRevenueLegacy() {
+        EntityManager entityManager = entityManagerFactory.createEntityManager();
+        try {
+            List<Object[]> rows = entityManager.createNativeQuery(DAILY_REVENUE_LEGACY_SQL)
+                    .setParameter("days", DAYS)
+                    .getResultList();
+            return rows.stream()
+                    .map(row -> DailyRevenueResponse.builder()
+                            .date(LocalDate.parse(row[0].toString()))
+                            .bookingsCount(Long.valueOf(row[1].toString()))
+                            .revenue(new BigDecimal(row[2].toString()))
+                            .ticketsSold(Long.valueOf(row[3].toString()))
+                            .build())
+                    .toList();
+        } finally {
+            entityManager.close();
+        }
+    }
+
+    @Benchmark
+    public List<SessionOccupancyResponse> sessionOccupancyTyped() {
+        return analyticsService.getSessionOccupancyStats();
+    }
+
+    @Benchmark
+    @SuppressWarnings("unchecked")
+    public List<SessionOccupancyResponse> sessionOccupancyLegacy() {
+        EntityManager entityManager = entityManagerFactory.createEntityManager();
+        try {
+            List<Object[]> rows = entityManager.createNativeQuery(SESSION_OCCUPANCY_LEGACY_SQL).getResultList();
+            return rows.stream()
+                    .map(row -> SessionOccupancyResponse.builder()
+                            .sessionId(Long.valueOf(row[0].toString()))
+                            .movieTitle((String) row[1])
+                            .hallName((String) row[2])
+                            .capacity(Integer.valueOf(row[3].toString()))
+                            .bookedSeats(Long.valueOf(row[4].toString()))
+                            .occupancyPercent(new BigDecimal(row[5].toString()))
+                            .build())
+                    .toList();
+        } finally {
+            entityManager.close();
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package org.example.db_project.benchmark;
+
+import org.example.db_project.DbProjectApplication;
+import org.example.db_project.domain.entity.Hall;
+import org.example.db_project.domain.entity.Seat;
+import org.example.db_project.domain.repository.HallRepository;
+import org.example.db_project.domain.repository.MovieRepository;
+import org.example.db_project.domain.repository.SeatRepository;
+import org.example.db_project.domain.repository.UserRepository;
+import org.example.db_project.dto.request.CreateBookingRequest;
+import org.example.db_project.dto.request.CreateSessionRequest;
+import org.example.db_project.dto.response.BookingResponse;
+import org.example.db_project.dto.response.SeatResponse;
+import org.example.db_project.service.BookingService;
+import org.example.db_project.service.SeatService;
+import org.example.db_project.service.SessionService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs the booking hot paths against the PostgreSQL instance configured in
+ * {@code application-benchmark.properties} (override with {@code BENCHMARK_DB_URL}).
+ * Each trial schedules its own session far in the future and cancels it afterwards.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BookingDatabaseBenchmark {
+    @Param({"1", "4", "10"})
+    private int partySize;
+    private ConfigurableApplicationContext context;
+    private BookingService bookingService;
+    private SeatService seatService;
+    private SessionService sessionService;
+    private Long hallId;
+    private Long sessionId;
+    private Long sampleBookingId;
+    private Long createdBookingId;
+    private CreateBookingRequest createRequest;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(DbProjectApplication.class)
+                .profiles("benchmark")
+                .web(WebApplicationType.NONE)
+                .run();
+        bookingService = context.getBean(BookingService.class);
+        seatService = context.getBean(SeatService.class);
+        sessionService = context.getBean(SessionService.class);
+        Hall hall = context.getBean(HallRepository.class).findAll().stream()
+                .max(Comparator.comparing(Hall::getCapacity))
+                .orElseThrow();
+        hallId = hall.getId();
+        Long movieId = context.getBean(MovieRepository.class).findAll().stream()
+                .findFirst()
+                .orElseThrow()
+                .getId();
+        Long userId = context.getBean(UserRepository.class).findByEmail("admin@cinema.com")
+                .orElseThrow()
+                .getId();
+        sessionId = sessionService.createSession(CreateSessionRequest.builder()
+                .movieId(movieId)
+                .hallId(hallId)
+                .startTime(OffsetDateTime.now()
+                        .plusYears(5)
+                        .plusDays(ThreadLocalRandom.current().nextInt(3650))
+                        .truncatedTo(ChronoUnit.HOURS))
+                .basePrice(new BigDecimal("12.50"))
+                .build()).getId();
+        List<Long> seatIds = context.getBean(SeatRepository.class).findByHallIdOrdered(hallId).stream()
+                .map(Seat::getId)
+                .toList();
+        createRequest = CreateBookingRequest.builder()
+                .userId(userId)
+                .sessionId(sessionId)
+                .seatIds(seatIds.subList(0, partySize))
+                .build();
+        sampleBookingId = bookingService.createBooking(CreateBookingRequest.builder()
+                .userId(userId)
+                .sessionId(sessionId)
+                .seatIds(seatIds.subList(seatIds.size() - partySize, seatIds.size()))
+                .build()).getId();
+    }
+
+    @TearDown(Level.Invocation)
+    public void releaseCreatedBooking() {
+        if (createdBookingId != null) {
+            bookingService.cancelBooking(createdBookingId);
+            createdBookingId = null;
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        sessionService.cancelSession(sessionId);
+        context.close();
+    }
+
+    @Benchmark
+    public BookingResponse createBooking() {
+        BookingResponse response = bookingService.createBooking(createRequest);
+        createdBookingId = response.getId();
+        return response;
+    }
+
+    @Benchmark
+    public List<SeatResponse> getAvailableSeatsForSession() {
+        return seatService.getAvailableSeatsForSession(hallId, sessionId);
+    }
+
+    @Benchmark
+    public BookingResponse toResponse() {
+        return bookingService.getBookingById(sampleBookingId);
+    }
+}
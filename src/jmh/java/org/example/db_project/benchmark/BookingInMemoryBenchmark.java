@@ -0,0 +1,50 @@
+package org.example.db_project.benchmark;
+
+import org.example.db_project.dto.request.CreateBookingRequest;
+import org.example.db_project.dto.response.BookingResponse;
+import org.example.db_project.dto.response.SeatResponse;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BookingInMemoryBenchmark {
+    @Param({"1", "4", "10"})
+    private int partySize;
+    @Param({"0", "300"})
+    private int bookedSeats;
+    private InMemoryBookingFixture fixture;
+    private CreateBookingRequest createRequest;
+
+    @Setup
+    public void setUp() {
+        fixture = new InMemoryBookingFixture(bookedSeats, partySize);
+        createRequest = CreateBookingRequest.builder()
+                .userId(InMemoryBookingFixture.USER_ID)
+                .sessionId(InMemoryBookingFixture.SESSION_ID)
+                .seatIds(fixture.seatIds(partySize))
+                .build();
+    }
+
+    @Benchmark
+    public BookingResponse createBooking() {
+        return fixture.bookingService.createBooking(createRequest);
+    }
+
+    @Benchmark
+    public List<SeatResponse> getAvailableSeatsForSession() {
+        return fixture.seatService.getAvailableSeatsForSession(
+                InMemoryBookingFixture.HALL_ID, InMemoryBookingFixture.SESSION_ID);
+    }
+
+    @Benchmark
+    public BookingResponse toResponse() {
+        return fixture.bookingService.getBookingById(InMemoryBookingFixture.BOOKING_ID);
+    }
+}
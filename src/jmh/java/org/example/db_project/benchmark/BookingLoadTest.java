@@ -0,0 +1,383 @@
+package org.example.db_project.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.example.db_project.DbProjectApplication;
+import org.example.db_project.domain.entity.Hall;
+import org.example.db_project.domain.entity.Seat;
+import org.example.db_project.domain.repository.HallRepository;
+import org.example.db_project.domain.repository.MovieRepository;
+import org.example.db_project.domain.repository.SeatRepository;
+import org.example.db_project.domain.repository.UserRepository;
+import org.example.db_project.dto.request.CreateBookingRequest;
+import org.example.db_project.dto.request.CreateSessionRequest;
+import org.example.db_project.exception.SeatAlreadyBookedException;
+import org.example.db_project.service.BookingService;
+import org.example.db_project.service.SessionService;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.env.Environment;
+import org.springframework.core.env.SimpleCommandLinePropertySource;
+import org.springframework.http.HttpStatus;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Drives {@link BookingService#createBooking} from many virtual threads against a single
+ * session, picking seats with Zipf-skewed popularity centred on the middle of the hall,
+ * and prints throughput, latency percentiles, conflicts, deadlocks and seat lock wait.
+ * Successful bookings are cancelled after {@code load.hold} so the hot seats keep churning.
+ * With {@code --load.target=http} the same load goes through the REST API of an embedded
+ * server instead, which lets the platform and virtual thread request modes be compared.
+ *
+ * <pre>
+ * ./gradlew bookingLoadTest -Pload.args="--load.users=500 --load.duration=PT30S --booking.seat-locking-mode=ROW_LOCK"
+ * ./gradlew bookingLoadTest -Pload.args="--load.target=http --spring.profiles.include=virtual"
+ * </pre>
+ */
+public final class BookingLoadTest {
+    private static final String DEADLOCK_SQL_STATE = "40P01";
+
+    private final BookingDriver driver;
+    private final MeterRegistry meterRegistry;
+    private final Long userId;
+    private final Long sessionId;
+    private final List<Long> seatsByPopularity;
+    private final ZipfSampler sampler;
+    private final int seatsPerBooking;
+    private final Duration hold;
+    private final LongAdder succeeded = new LongAdder();
+    private final LongAdder conflicts = new LongAdder();
+    private final LongAdder deadlocks = new LongAdder();
+    private final ConcurrentMap<String, LongAdder> failures = new ConcurrentHashMap<>();
+    private final List<long[]> latencies = Collections.synchronizedList(new ArrayList<>());
+
+    private BookingLoadTest(ConfigurableApplicationContext context, BookingDriver driver,
+                            Long sessionId, List<Long> seatsByPopularity) {
+        Environment environment = context.getEnvironment();
+        this.driver = driver;
+        this.meterRegistry = context.getBean(MeterRegistry.class);
+        this.userId = context.getBean(UserRepository.class).findByEmail("admin@cinema.com")
+                .orElseThrow()
+                .getId();
+        this.sessionId = sessionId;
+        this.seatsByPopularity = seatsByPopularity;
+        this.sampler = new ZipfSampler(seatsByPopularity.size(),
+                environment.getProperty("load.zipf-exponent", Double.class, 1.1));
+        this.seatsPerBooking = environment.getProperty("load.seats-per-booking", Integer.class, 2);
+        this.hold = environment.getProperty("load.hold", Duration.class, Duration.ofMillis(50));
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        boolean http = "http".equals(new SimpleCommandLinePropertySource(args).getProperty("load.target"));
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(DbProjectApplication.class)
+                .profiles("benchmark")
+                .web(http ? WebApplicationType.SERVLET : WebApplicationType.NONE)
+                .properties("server.port=0")
+                .run(args)) {
+            Environment environment = context.getEnvironment();
+            int users = environment.getProperty("load.users", Integer.class, 200);
+            Duration duration = environment.getProperty("load.duration", Duration.class, Duration.ofSeconds(30));
+            SessionService sessionService = context.getBean(SessionService.class);
+            Hall hall = context.getBean(HallRepository.class).findAll().stream()
+                    .max(Comparator.comparing(Hall::getCapacity))
+                    .orElseThrow();
+            Long sessionId = sessionService.createSession(CreateSessionRequest.builder()
+                    .movieId(context.getBean(MovieRepository.class).findAll().stream()
+                            .findFirst()
+                            .orElseThrow()
+                            .getId())
+                    .hallId(hall.getId())
+                    .startTime(OffsetDateTime.now()
+                            .plusYears(5)
+                            .plusDays(ThreadLocalRandom.current().nextInt(3650))
+                            .truncatedTo(ChronoUnit.HOURS))
+                    .basePrice(new BigDecimal("18.00"))
+                    .build()).getId();
+            try {
+                List<Seat> seats = context.getBean(SeatRepository.class).findByHallIdOrdered(hall.getId());
+                BookingDriver driver = http
+                        ? new HttpBookingDriver(environment.getRequiredProperty("local.server.port", Integer.class),
+                                context.getBean(ObjectMapper.class))
+                        : new ServiceBookingDriver(context.getBean(BookingService.class));
+                BookingLoadTest loadTest = new BookingLoadTest(context, driver, sessionId, rankByPopularity(seats));
+                System.out.printf("Booking load: %d virtual users for %s on %s (%d seats, locking mode %s, "
+                                + "target %s, virtual request threads %s)%n",
+                        users, duration, hall.getName(), seats.size(),
+                        environment.getProperty("booking.seat-locking-mode", "RESERVATION"),
+                        http ? "http" : "service",
+                        environment.getProperty("spring.threads.virtual.enabled", "false"));
+                loadTest.run(users, duration);
+            } finally {
+                sessionService.cancelSession(sessionId);
+            }
+        }
+    }
+
+    private void run(int users, Duration duration) throws InterruptedException {
+        long deadline = System.nanoTime() + duration.toNanos();
+        long started = System.nanoTime();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < users; i++) {
+                executor.submit(() -> bookUntil(deadline));
+            }
+        }
+        report(Duration.ofNanos(System.nanoTime() - started));
+    }
+
+    private void bookUntil(long deadline) {
+        LatencyBuffer buffer = new LatencyBuffer();
+        try {
+            while (System.nanoTime() < deadline) {
+                List<Long> seatIds = pickSeats();
+                long start = System.nanoTime();
+                Long bookingId = null;
+                try {
+                    bookingId = driver.create(CreateBookingRequest.builder()
+                            .userId(userId)
+                            .sessionId(sessionId)
+                            .seatIds(seatIds)
+                            .build());
+                    succeeded.increment();
+                } catch (SeatAlreadyBookedException e) {
+                    conflicts.increment();
+                } catch (RuntimeException e) {
+                    if (isDeadlock(e)) {
+                        deadlocks.increment();
+                    } else {
+                        failures.computeIfAbsent(e.getClass().getSimpleName(), name -> new LongAdder()).increment();
+                    }
+                }
+                buffer.add(System.nanoTime() - start);
+                if (bookingId != null) {
+                    sleep(hold);
+                    cancel(bookingId);
+                }
+            }
+        } finally {
+            latencies.add(buffer.toArray());
+        }
+    }
+
+    private void cancel(Long bookingId) {
+        try {
+            driver.cancel(bookingId);
+        } catch (RuntimeException e) {
+            failures.computeIfAbsent("cancel " + e.getClass().getSimpleName(), name -> new LongAdder()).increment();
+        }
+    }
+
+    private List<Long> pickSeats() {
+        Set<Long> picked = new LinkedHashSet<>();
+        while (picked.size() < seatsPerBooking) {
+            picked.add(seatsByPopularity.get(sampler.sample()));
+        }
+        return new ArrayList<>(picked);
+    }
+
+    private void report(Duration elapsed) {
+        long[] all = latencies.stream().flatMapToLong(Arrays::stream).sorted().toArray();
+        long attempts = all.length;
+        double seconds = elapsed.toNanos() / 1e9;
+        System.out.printf("%nAttempts:        %d in %.1f s%n", attempts, seconds);
+        System.out.printf("Throughput:      %.1f bookings/s (%.1f attempts/s)%n",
+                succeeded.sum() / seconds, attempts / seconds);
+        System.out.printf("Latency:         p50 %.2f ms, p99 %.2f ms, p999 %.2f ms, max %.2f ms%n",
+                millis(percentile(all, 0.50)), millis(percentile(all, 0.99)),
+                millis(percentile(all, 0.999)), millis(attempts > 0 ? all[all.length - 1] : 0));
+        System.out.printf("Succeeded:       %d%n", succeeded.sum());
+        System.out.printf("Conflicts:       %d (%.1f%%)%n", conflicts.sum(), rate(conflicts.sum(), attempts));
+        System.out.printf("Deadlocks:       %d (%.2f%%)%n", deadlocks.sum(), rate(deadlocks.sum(), attempts));
+        failures.forEach((type, count) -> System.out.printf("Failed (%s): %d%n", type, count.sum()));
+        meterRegistry.find("booking.seat.lock.wait").timers().forEach(this::reportLockWait);
+        FunctionCounter admissionWait = meterRegistry.find("datasource.admission.wait").functionCounter();
+        if (admissionWait != null) {
+            System.out.printf("Pool admission:  total wait %.1f s%n", admissionWait.count());
+        }
+    }
+
+    private void reportLockWait(Timer timer) {
+        System.out.printf("Seat lock wait:  %s, %d calls, total %.1f s, mean %.2f ms, max %.2f ms%n",
+                timer.getId().getTag("mode"), timer.count(), timer.totalTime(TimeUnit.SECONDS),
+                timer.mean(TimeUnit.MILLISECONDS), timer.max(TimeUnit.MILLISECONDS));
+    }
+
+    private static List<Long> rankByPopularity(List<Seat> seats) {
+        double middleRow = seats.stream().mapToInt(Seat::getRowNumber).average().orElse(0);
+        double middleSeat = seats.stream().mapToInt(Seat::getSeatNumber).average().orElse(0);
+        return seats.stream()
+                .sorted(Comparator.comparingDouble(seat ->
+                        Math.abs(seat.getRowNumber() - middleRow) + Math.abs(seat.getSeatNumber() - middleSeat)))
+                .map(Seat::getId)
+                .toList();
+    }
+
+    private static boolean isDeadlock(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SQLException sqlException && DEADLOCK_SQL_STATE.equals(sqlException.getSQLState())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static long percentile(long[] sorted, double quantile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        return sorted[(int) Math.min(sorted.length - 1, Math.ceil(quantile * sorted.length) - 1)];
+    }
+
+    private static double rate(long count, long attempts) {
+        return attempts > 0 ? 100.0 * count / attempts : 0;
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1e6;
+    }
+
+    private static void sleep(Duration duration) {
+        try {
+            Thread.sleep(duration);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private interface BookingDriver {
+        Long create(CreateBookingRequest request);
+
+        void cancel(Long bookingId);
+    }
+
+    private record ServiceBookingDriver(BookingService bookingService) implements BookingDriver {
+        @Override
+        public Long create(CreateBookingRequest request) {
+            return bookingService.createBooking(request).getId();
+        }
+
+        @Override
+        public void cancel(Long bookingId) {
+            bookingService.cancelBooking(bookingId);
+        }
+    }
+
+    private static final class HttpBookingDriver implements BookingDriver {
+        private final HttpClient client = HttpClient.newBuilder()
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+        private final URI bookingsUri;
+        private final ObjectMapper objectMapper;
+
+        HttpBookingDriver(int port, ObjectMapper objectMapper) {
+            this.bookingsUri = URI.create("http://localhost:" + port + "/api/bookings");
+            this.objectMapper = objectMapper;
+        }
+
+        @Override
+        public Long create(CreateBookingRequest request) {
+            HttpResponse<String> response = send(HttpRequest.newBuilder(bookingsUri)
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(toJson(request)))
+                    .build());
+            if (response.statusCode() == HttpStatus.CONFLICT.value()) {
+                throw new SeatAlreadyBookedException(request.getSeatIds());
+            }
+            if (response.statusCode() != HttpStatus.CREATED.value()) {
+                throw new IllegalStateException("HTTP " + response.statusCode());
+            }
+            try {
+                return objectMapper.readTree(response.body()).get("id").asLong();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        public void cancel(Long bookingId) {
+            HttpResponse<String> response = send(HttpRequest.newBuilder(bookingsUri.resolve("bookings/" + bookingId + "/cancel"))
+                    .POST(HttpRequest.BodyPublishers.noBody())
+                    .build());
+            if (response.statusCode() >= 300) {
+                throw new IllegalStateException("HTTP " + response.statusCode());
+            }
+        }
+
+        private String toJson(CreateBookingRequest request) {
+            try {
+                return objectMapper.writeValueAsString(request);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        private HttpResponse<String> send(HttpRequest request) {
+            try {
+                return client.send(request, HttpResponse.BodyHandlers.ofString());
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+
+    private static final class ZipfSampler {
+        private final double[] cumulative;
+
+        ZipfSampler(int size, double exponent) {
+            cumulative = new double[size];
+            double sum = 0;
+            for (int rank = 0; rank < size; rank++) {
+                sum += 1 / Math.pow(rank + 1, exponent);
+                cumulative[rank] = sum;
+            }
+            for (int rank = 0; rank < size; rank++) {
+                cumulative[rank] /= sum;
+            }
+        }
+
+        int sample() {
+            int index = Arrays.binarySearch(cumulative, ThreadLocalRandom.current().nextDouble());
+            return Math.min(index >= 0 ? index : -index - 1, cumulative.length - 1);
+        }
+    }
+
+    private static final class LatencyBuffer {
+        private long[] values = new long[1024];
+        private int size;
+
+        void add(long value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        long[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+}
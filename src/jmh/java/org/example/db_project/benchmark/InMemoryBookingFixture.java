@@ -0,0 +1,187 @@
+package org.example.db_project.benchmark;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.db_project.config.PrimaryReads;
+import org.example.db_project.domain.entity.*;
+import org.example.db_project.domain.enums.BookingStatus;
+import org.example.db_project.domain.enums.HallType;
+import org.example.db_project.domain.enums.SeatLockingMode;
+import org.example.db_project.domain.enums.SeatType;
+import org.example.db_project.domain.enums.SessionStatus;
+import org.example.db_project.domain.repository.*;
+import org.example.db_project.service.*;
+import org.mockito.Mockito;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.lang.reflect.Field;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+/**
+ * Wires the real booking and seat services over stub repositories that answer
+ * from in-memory entities, so benchmarks measure service code without JDBC.
+ */
+final class InMemoryBookingFixture {
+    static final long HALL_ID = 1L;
+    static final long SESSION_ID = 1L;
+    static final long USER_ID = 1L;
+    static final long BOOKING_ID = 1L;
+    static final int ROWS = 20;
+    static final int SEATS_PER_ROW = 30;
+
+    final BookingService bookingService;
+    final SeatService seatService;
+    final Hall hall;
+    final Session session;
+    final User user;
+    final List<Seat> seats;
+    final Booking booking;
+
+    InMemoryBookingFixture(int bookedSeats, int bookingSize) {
+        hall = Hall.builder()
+                .id(HALL_ID)
+                .name("Benchmark IMAX")
+                .hallType(HallType.IMAX)
+                .capacity(ROWS * SEATS_PER_ROW)
+                .build();
+        seats = new ArrayList<>(ROWS * SEATS_PER_ROW);
+        for (int row = 1; row <= ROWS; row++) {
+            for (int number = 1; number <= SEATS_PER_ROW; number++) {
+                seats.add(Seat.builder()
+                        .id((long) seats.size() + 1)
+                        .hall(hall)
+                        .rowNumber(row)
+                        .seatNumber(number)
+                        .seatType(row > ROWS - 3 ? SeatType.VIP : SeatType.STANDARD)
+                        .priceMultiplier(row > ROWS - 3 ? new BigDecimal("1.50") : BigDecimal.ONE)
+                        .build());
+            }
+        }
+        Movie movie = Movie.builder()
+                .id(1L)
+                .title("Benchmark Movie")
+                .durationMinutes(150)
+                .build();
+        session = Session.builder()
+                .id(SESSION_ID)
+                .movie(movie)
+                .hall(hall)
+                .startTime(OffsetDateTime.now().plusDays(1))
+                .endTime(OffsetDateTime.now().plusDays(1).plusMinutes(165))
+                .basePrice(new BigDecimal("12.50"))
+                .status(SessionStatus.SCHEDULED)
+                .build();
+        user = User.builder()
+                .id(USER_ID)
+                .email("benchmark@cinema.com")
+                .firstName("Bench")
+                .lastName("Mark")
+                .build();
+        booking = Booking.builder()
+                .id(BOOKING_ID)
+                .user(user)
+                .session(session)
+                .totalPrice(BigDecimal.ZERO)
+                .status(BookingStatus.CONFIRMED)
+                .createdAt(OffsetDateTime.now())
+                .build();
+        for (Seat seat : seats.subList(0, bookingSize)) {
+            booking.addBookingSeat(BookingSeat.builder()
+                    .id(seat.getId())
+                    .seat(seat)
+                    .price(session.getBasePrice().multiply(seat.getPriceMultiplier()))
+                    .build());
+        }
+
+        SeatRepository seatRepository = stub(SeatRepository.class);
+        BookingSeatRepository bookingSeatRepository = stub(BookingSeatRepository.class);
+        BookingRepository bookingRepository = stub(BookingRepository.class);
+        SessionRepository sessionRepository = stub(SessionRepository.class);
+        UserRepository userRepository = stub(UserRepository.class);
+        HallRepository hallRepository = stub(HallRepository.class);
+        SeatHoldService seatHoldService = stub(SeatHoldService.class);
+
+        List<Long> seatIds = seats.stream().map(Seat::getId).toList();
+        List<Long> bookedSeatIds = seatIds.subList(seatIds.size() - bookedSeats, seatIds.size());
+        when(hallRepository.findAll()).thenReturn(List.of(hall));
+        when(seatRepository.findAllOrderedByHall()).thenReturn(seats);
+        when(seatRepository.findByHallIdOrdered(HALL_ID)).thenReturn(seats);
+        when(seatRepository.findAllById(any())).thenAnswer(invocation -> {
+            Iterable<Long> ids = invocation.getArgument(0);
+            List<Seat> found = new ArrayList<>();
+            ids.forEach(id -> found.add(seats.get(id.intValue() - 1)));
+            return found;
+        });
+        when(seatRepository.getReferenceById(any()))
+                .thenAnswer(invocation -> seats.get(invocation.<Long>getArgument(0).intValue() - 1));
+        when(bookingSeatRepository.findBookedSeatIdsForSession(SESSION_ID)).thenReturn(bookedSeatIds);
+        when(bookingSeatRepository.reserveSeats(any(), any(), any()))
+                .thenAnswer(invocation -> invocation.<List<Long>>getArgument(2).size());
+        AtomicLong bookingIds = new AtomicLong(BOOKING_ID);
+        when(bookingRepository.save(any())).thenAnswer(invocation -> {
+            Booking saved = invocation.getArgument(0);
+            saved.setId(bookingIds.incrementAndGet());
+            saved.setCreatedAt(OffsetDateTime.now());
+            return saved;
+        });
+        when(bookingRepository.findByIdWithDetails(BOOKING_ID)).thenReturn(Optional.of(booking));
+        when(sessionRepository.findByIdWithDetails(SESSION_ID)).thenReturn(Optional.of(session));
+        when(userRepository.findById(USER_ID)).thenReturn(Optional.of(user));
+
+        when(sessionRepository.findPricingById(SESSION_ID)).thenReturn(Optional.of(
+                new SessionRepository.SessionPricingView() {
+                    @Override
+                    public Long getHallId() {
+                        return HALL_ID;
+                    }
+
+                    @Override
+                    public BigDecimal getBasePrice() {
+                        return session.getBasePrice();
+                    }
+
+                    @Override
+                    public OffsetDateTime getStartTime() {
+                        return session.getStartTime();
+                    }
+                }));
+
+        HallLayoutCache hallLayoutCache = new HallLayoutCache(hallRepository, seatRepository);
+        PrimaryReads primaryReads = new PrimaryReads(stub(PlatformTransactionManager.class), "");
+        SessionPriceTables sessionPriceTables = new SessionPriceTables(hallLayoutCache, sessionRepository, primaryReads);
+        seatService = new SeatService(seatRepository,
+                new SeatOccupancyIndex(hallLayoutCache, bookingSeatRepository, primaryReads),
+                hallLayoutCache, sessionPriceTables, new PricingEngine(true, new BigDecimal("0.6"),
+                new BigDecimal("0.25"), Duration.ofHours(2), new BigDecimal("0.10")));
+        bookingService = new BookingService(bookingRepository, bookingSeatRepository, sessionRepository,
+                userRepository, seatRepository, seatService, hallLayoutCache, seatHoldService,
+                stub(BookingOutbox.class), event -> { }, new SimpleMeterRegistry());
+        setField(bookingService, "seatLockingMode", SeatLockingMode.RESERVATION);
+    }
+
+    List<Long> seatIds(int count) {
+        return seats.subList(0, count).stream().map(Seat::getId).toList();
+    }
+
+    private static void setField(Object target, String name, Object value) {
+        try {
+            Field field = target.getClass().getDeclaredField(name);
+            field.setAccessible(true);
+            field.set(target, value);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Cannot set " + name, e);
+        }
+    }
+
+    private static <T> T stub(Class<T> type) {
+        return Mockito.mock(type, Mockito.withSettings().stubOnly());
+    }
+}
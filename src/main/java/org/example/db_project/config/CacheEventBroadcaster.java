@@ -0,0 +1,233 @@
+package org.example.db_project.config;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.example.db_project.domain.event.CachesStaleEvent;
+import org.example.db_project.domain.event.HallLayoutsChangedEvent;
+import org.example.db_project.domain.event.SeatAvailabilityChangedEvent;
+import org.example.db_project.domain.event.SessionChangedEvent;
+import org.example.db_project.domain.event.SessionStatusesUpdatedEvent;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import javax.sql.DataSource;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Shares the events that keep in-memory caches current with the other instances. Each
+ * event is sent with {@code pg_notify} inside the transaction that caused it, so PostgreSQL
+ * delivers it only if that transaction commits. Every instance listens on its own
+ * connection to the primary and re-publishes the events of other instances locally, where
+ * the usual listeners apply them. Notifications sent while the connection was down are
+ * lost, so after reconnecting a {@link CachesStaleEvent} makes the caches reload. The
+ * listening connection is taken from the application's datasource and held for as long as
+ * it stays open.
+ */
+@Component
+@ConditionalOnProperty(name = "cache.broadcast.enabled", havingValue = "true", matchIfMissing = true)
+@Slf4j
+public class CacheEventBroadcaster {
+    static final String CHANNEL = "cache_events";
+    // NOTIFY payloads must be shorter than 8000 bytes; a chunk that still exceeds this is split
+    private static final int MAX_PAYLOAD_BYTES = 7900;
+    private static final int SEAT_IDS_PER_MESSAGE = 400;
+    private static final Map<String, Class<?>> EVENT_TYPES = Map.of(
+            "seats", SeatAvailabilityChangedEvent.class,
+            "session", SessionChangedEvent.class,
+            "statuses", SessionStatusesUpdatedEvent.class,
+            "layouts", HallLayoutsChangedEvent.class);
+
+    private final String nodeId = UUID.randomUUID().toString();
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final DataSource dataSource;
+    private final Duration reconnectDelay;
+    private volatile Thread listener;
+    private volatile Connection connection;
+
+    public CacheEventBroadcaster(JdbcTemplate jdbcTemplate,
+                                 ObjectMapper objectMapper,
+                                 ApplicationEventPublisher eventPublisher,
+                                 DataSource dataSource,
+                                 @Value("${cache.broadcast.reconnect-delay:PT5S}") Duration reconnectDelay) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+        this.eventPublisher = eventPublisher;
+        this.dataSource = dataSource;
+        this.reconnectDelay = reconnectDelay;
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void onSeatAvailabilityChanged(SeatAvailabilityChangedEvent event) {
+        if (isRepublished()) {
+            return;
+        }
+        List<Long> seatIds = event.seatIds();
+        for (int from = 0; from < seatIds.size(); from += SEAT_IDS_PER_MESSAGE) {
+            sendSeats(event, seatIds.subList(from, Math.min(from + SEAT_IDS_PER_MESSAGE, seatIds.size())));
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void onSessionChanged(SessionChangedEvent event) {
+        send("session", event);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void onSessionStatusesUpdated(SessionStatusesUpdatedEvent event) {
+        send("statuses", event);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void onHallLayoutsChanged(HallLayoutsChangedEvent event) {
+        send("layouts", event);
+    }
+
+    /** Starts listening before the caches warm up, so nothing committed after their load is missed. */
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        try {
+            listen();
+        } catch (SQLException e) {
+            log.warn("Could not listen for cache events, retrying in {}", reconnectDelay, e);
+            closeConnection();
+        }
+        listener = Thread.ofPlatform()
+                .name("cache-events")
+                .daemon()
+                .start(this::receive);
+    }
+
+    @PreDestroy
+    void stop() {
+        if (listener != null) {
+            listener.interrupt();
+        }
+    }
+
+    private void send(String type, Object event) {
+        if (!isRepublished()) {
+            pgNotify(encode(type, event));
+        }
+    }
+
+    private void sendSeats(SeatAvailabilityChangedEvent event, List<Long> seatIds) {
+        String payload = encode("seats", new SeatAvailabilityChangedEvent(event.sessionId(), seatIds, event.booked()));
+        if (payload.getBytes(StandardCharsets.UTF_8).length > MAX_PAYLOAD_BYTES && seatIds.size() > 1) {
+            int half = seatIds.size() / 2;
+            sendSeats(event, seatIds.subList(0, half));
+            sendSeats(event, seatIds.subList(half, seatIds.size()));
+            return;
+        }
+        pgNotify(payload);
+    }
+
+    /** Events applied from another instance are not sent back. */
+    private boolean isRepublished() {
+        return Thread.currentThread() == listener;
+    }
+
+    private String encode(String type, Object event) {
+        try {
+            return objectMapper.writeValueAsString(Map.of("node", nodeId, "type", type, "event", event));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private void pgNotify(String payload) {
+        jdbcTemplate.query("SELECT pg_notify(?, ?)", rs -> null, CHANNEL, payload);
+    }
+
+    private void receive() {
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                if (connection == null) {
+                    listen();
+                    eventPublisher.publishEvent(new CachesStaleEvent());
+                    log.info("Reconnected to cache events; reloading caches");
+                }
+                PGNotification[] notifications = connection.unwrap(PGConnection.class).getNotifications(1000);
+                if (notifications != null) {
+                    for (PGNotification notification : notifications) {
+                        dispatch(notification.getParameter());
+                    }
+                }
+            } catch (SQLException e) {
+                log.warn("Lost cache events connection, retrying in {}", reconnectDelay, e);
+                closeConnection();
+                try {
+                    Thread.sleep(reconnectDelay);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+        closeConnection();
+    }
+
+    private void listen() throws SQLException {
+        // Outside a transaction the routing datasource hands out a primary connection, which
+        // is kept checked out: returned to the pool it could be closed and lose the LISTEN.
+        connection = dataSource.getConnection();
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("LISTEN " + CHANNEL);
+        }
+    }
+
+    private void dispatch(String payload) {
+        try {
+            JsonNode message = objectMapper.readTree(payload);
+            if (nodeId.equals(message.path("node").asText())) {
+                return;
+            }
+            Class<?> type = EVENT_TYPES.get(message.path("type").asText());
+            if (type == null) {
+                log.warn("Ignoring cache event of unknown type: {}", payload);
+                return;
+            }
+            eventPublisher.publishEvent(objectMapper.treeToValue(message.get("event"), type));
+        } catch (JsonProcessingException | RuntimeException e) {
+            log.error("Failed to apply cache event {}", payload, e);
+        }
+    }
+
+    private void closeConnection() {
+        Connection current = connection;
+        connection = null;
+        if (current != null) {
+            try {
+                current.close();
+            } catch (SQLException e) {
+                log.debug("Failed to close cache events connection", e);
+            }
+        }
+    }
+}
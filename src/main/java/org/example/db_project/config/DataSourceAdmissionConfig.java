@@ -0,0 +1,71 @@
+package org.example.db_project.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.Map;
+import java.util.TreeMap;
+
+@Configuration
+@ConditionalOnProperty(name = "datasource.admission.enabled", havingValue = "true")
+public class DataSourceAdmissionConfig {
+
+    @Bean
+    public static BeanPostProcessor dataSourceAdmissionPostProcessor(
+            @Value("${datasource.admission.permits:${spring.datasource.hikari.maximum-pool-size:10}}") int permits,
+            @Value("${datasource.admission.timeout:PT30S}") Duration timeout) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof HikariDataSource dataSource) {
+                    return new AdmissionControlledDataSource(dataSource, permits, timeout);
+                }
+                return bean;
+            }
+        };
+    }
+
+    /**
+     * Binds the metrics of every admission-controlled pool, tagged with its bean name. The pools
+     * are taken from the context directly; unwrapping the routing datasource would only reach
+     * the primary and count as a connection route.
+     */
+    @Bean
+    public MeterBinder dataSourceAdmissionMetrics(Map<String, DataSource> dataSources) {
+        Map<String, AdmissionControlledDataSource> pools = new TreeMap<>();
+        dataSources.forEach((name, dataSource) -> {
+            if (dataSource instanceof AdmissionControlledDataSource admission) {
+                pools.put(name, admission);
+            }
+        });
+        return registry -> pools.forEach((pool, admission) -> {
+            Gauge.builder("datasource.admission.in.use", admission, AdmissionControlledDataSource::getInUse)
+                    .description("Connections currently admitted from the pool")
+                    .tag("pool", pool)
+                    .register(registry);
+            Gauge.builder("datasource.admission.queued", admission, AdmissionControlledDataSource::getQueueLength)
+                    .description("Threads waiting for a connection permit")
+                    .tag("pool", pool)
+                    .register(registry);
+            FunctionCounter.builder("datasource.admission.wait", admission, AdmissionControlledDataSource::getWaitSeconds)
+                    .description("Total seconds spent waiting for a connection permit")
+                    .baseUnit("seconds")
+                    .tag("pool", pool)
+                    .register(registry);
+            FunctionCounter.builder("datasource.admission.rejected", admission,
+                            AdmissionControlledDataSource::getRejectedCount)
+                    .description("Connection requests that timed out waiting for a permit")
+                    .tag("pool", pool)
+                    .register(registry);
+        });
+    }
+}
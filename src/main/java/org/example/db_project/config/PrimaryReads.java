@@ -0,0 +1,42 @@
+package org.example.db_project.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.function.Supplier;
+
+/**
+ * Runs the loads that fill in-memory caches against the primary. A cache built from a
+ * lagging replica would stay wrong, because the committed changes it missed were applied
+ * (to nothing) before the cache entry existed. A load outside a transaction gets its own
+ * read-write transaction, which the routing datasource sends to the primary. Inside a
+ * read-only transaction on the replica it gets a new one too, taking a second connection
+ * from the primary pool while the caller holds a replica one.
+ */
+@Component
+public class PrimaryReads {
+    static final String TRANSACTION_NAME = "PrimaryReads.load";
+
+    private final TransactionTemplate readWrite;
+    private final boolean routed;
+
+    public PrimaryReads(PlatformTransactionManager transactionManager,
+                        @Value("${datasource.replica.url:}") String replicaUrl) {
+        this.readWrite = new TransactionTemplate(transactionManager);
+        this.readWrite.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.readWrite.setName(TRANSACTION_NAME);
+        this.routed = !replicaUrl.isBlank();
+    }
+
+    public <T> T load(Supplier<T> loader) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()
+                && (!routed || !TransactionSynchronizationManager.isCurrentTransactionReadOnly())) {
+            return loader.get();
+        }
+        return readWrite.execute(status -> loader.get());
+    }
+}
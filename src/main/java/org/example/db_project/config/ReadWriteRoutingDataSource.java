@@ -0,0 +1,66 @@
+package org.example.db_project.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+/**
+ * Sends connections for read-only transactions to the replica and everything else to
+ * the primary, reporting each write to {@code onWrite} except the cache loads of
+ * {@link PrimaryReads}. Must sit behind a {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}
+ * so the route is chosen once the transaction's read-only flag is known.
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+    private final Runnable onWrite;
+    private final Counter primaryWrites;
+    private final Counter primaryLoads;
+    private final Counter pinnedReads;
+    private final Counter replicaReads;
+
+    public ReadWriteRoutingDataSource(DataSource primary, DataSource replica, MeterRegistry meterRegistry,
+                                      Runnable onWrite) {
+        setTargetDataSources(Map.of(Route.PRIMARY, primary, Route.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        this.onWrite = onWrite;
+        this.primaryWrites = routeCounter(meterRegistry, Route.PRIMARY, "write");
+        this.primaryLoads = routeCounter(meterRegistry, Route.PRIMARY, "cache-load");
+        this.pinnedReads = routeCounter(meterRegistry, Route.PRIMARY, "pinned-read");
+        this.replicaReads = routeCounter(meterRegistry, Route.REPLICA, "read");
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (PrimaryReads.TRANSACTION_NAME.equals(TransactionSynchronizationManager.getCurrentTransactionName())) {
+                primaryLoads.increment();
+            } else {
+                primaryWrites.increment();
+                onWrite.run();
+            }
+            return Route.PRIMARY;
+        }
+        if (ReadYourWrites.isPinned()) {
+            pinnedReads.increment();
+            return Route.PRIMARY;
+        }
+        replicaReads.increment();
+        return Route.REPLICA;
+    }
+
+    private static Counter routeCounter(MeterRegistry meterRegistry, Route route, String kind) {
+        return Counter.builder("datasource.route")
+                .description("Connections handed out by the read/write routing datasource")
+                .tag("target", route.name().toLowerCase())
+                .tag("kind", kind)
+                .register(meterRegistry);
+    }
+
+    enum Route {
+        PRIMARY,
+        REPLICA
+    }
+}
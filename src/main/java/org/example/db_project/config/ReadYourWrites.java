@@ -0,0 +1,24 @@
+package org.example.db_project.config;
+
+/**
+ * Per-thread flag that keeps read-only transactions on the primary once the current
+ * request has written, so it never reads its own changes from a lagging replica.
+ */
+public final class ReadYourWrites {
+    private static final ThreadLocal<Boolean> PINNED = new ThreadLocal<>();
+
+    private ReadYourWrites() {
+    }
+
+    public static void pin() {
+        PINNED.set(Boolean.TRUE);
+    }
+
+    public static boolean isPinned() {
+        return PINNED.get() != null;
+    }
+
+    public static void clear() {
+        PINNED.remove();
+    }
+}
@@ -0,0 +1,83 @@
+package org.example.db_project.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.UUID;
+
+/**
+ * Runs scheduled jobs on one instance at a time using leases in
+ * {@code scheduled_job_leases}. An instance runs a job only if it can take the job's
+ * lease, which is free once {@code lockAtMostFor} has passed since it was taken or,
+ * after the holder finished, once {@code lockAtLeastFor} has. Holding the lease for
+ * most of the job's interval keeps instances whose ticks are out of phase from running
+ * the same job again within that interval, and a crashed holder's lease simply expires.
+ * Lease times use the database clock, so instance clock skew does not matter.
+ */
+@Component
+@Slf4j
+public class ScheduledJobRunner {
+    private static final String ACQUIRE_SQL = """
+            INSERT INTO scheduled_job_leases (job_name, owner, locked_at, locked_until)
+            VALUES (?, ?, now(), now() + ? * interval '1 millisecond')
+            ON CONFLICT (job_name) DO UPDATE
+            SET owner = EXCLUDED.owner, locked_at = EXCLUDED.locked_at, locked_until = EXCLUDED.locked_until
+            WHERE scheduled_job_leases.locked_until <= now()
+            """;
+    private static final String RELEASE_SQL = """
+            UPDATE scheduled_job_leases
+            SET locked_until = GREATEST(now(), locked_at + ? * interval '1 millisecond')
+            WHERE job_name = ? AND owner = ?
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final MeterRegistry meterRegistry;
+    private final String owner = ManagementFactory.getRuntimeMXBean().getName() + "/" + UUID.randomUUID();
+
+    public ScheduledJobRunner(JdbcTemplate jdbcTemplate, MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.meterRegistry = meterRegistry;
+    }
+
+    public String getOwner() {
+        return owner;
+    }
+
+    /**
+     * Runs the task if this instance takes the job's lease.
+     *
+     * @return whether the task ran
+     */
+    public boolean run(String job, Duration lockAtMostFor, Duration lockAtLeastFor, Runnable task) {
+        if (jdbcTemplate.update(ACQUIRE_SQL, job, owner, lockAtMostFor.toMillis()) == 0) {
+            Counter.builder("scheduling.job.skipped")
+                    .description("Job ticks skipped because another instance holds the lease")
+                    .tag("job", job)
+                    .register(meterRegistry)
+                    .increment();
+            log.debug("Skipping job {}, its lease is held by another instance", job);
+            return false;
+        }
+        long startedAt = System.nanoTime();
+        String outcome = "failure";
+        try {
+            task.run();
+            outcome = "success";
+            return true;
+        } finally {
+            Timer.builder("scheduling.job")
+                    .description("Job runs on the instance holding the job's lease")
+                    .tag("job", job)
+                    .tag("outcome", outcome)
+                    .register(meterRegistry)
+                    .record(Duration.ofNanos(System.nanoTime() - startedAt));
+            jdbcTemplate.update(RELEASE_SQL, lockAtLeastFor.toMillis(), job, owner);
+        }
+    }
+}
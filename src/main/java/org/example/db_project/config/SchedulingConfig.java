@@ -1,35 +1,85 @@
 package org.example.db_project.config;
 
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.example.db_project.service.BookingService;
+import org.example.db_project.service.BookingExpiryService;
+import org.example.db_project.service.BookingIdempotencyService;
+import org.example.db_project.service.BookingOutboxRelay;
+import org.example.db_project.service.RevenueRollupService;
 import org.example.db_project.service.SessionService;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.scheduling.annotation.Scheduled;
 
+import java.time.Duration;
+
 @Configuration
 @EnableScheduling
-@RequiredArgsConstructor
 @Slf4j
 public class SchedulingConfig {
 
-    private final BookingService bookingService;
+    private final ScheduledJobRunner jobRunner;
+    private final BookingExpiryService bookingExpiryService;
+    private final BookingIdempotencyService bookingIdempotencyService;
+    private final BookingOutboxRelay bookingOutboxRelay;
     private final SessionService sessionService;
+    private final RevenueRollupService revenueRollupService;
+    private final Duration sessionStatusSweepInterval;
+
+    public SchedulingConfig(ScheduledJobRunner jobRunner,
+                            BookingExpiryService bookingExpiryService,
+                            BookingIdempotencyService bookingIdempotencyService,
+                            BookingOutboxRelay bookingOutboxRelay,
+                            SessionService sessionService,
+                            RevenueRollupService revenueRollupService,
+                            @Value("${session.status.sweep-interval:PT10M}") Duration sessionStatusSweepInterval) {
+        this.jobRunner = jobRunner;
+        this.bookingExpiryService = bookingExpiryService;
+        this.bookingIdempotencyService = bookingIdempotencyService;
+        this.bookingOutboxRelay = bookingOutboxRelay;
+        this.sessionService = sessionService;
+        this.revenueRollupService = revenueRollupService;
+        this.sessionStatusSweepInterval = sessionStatusSweepInterval;
+    }
 
     @Scheduled(fixedRate = 300000)
     public void expirePendingBookings() {
-        int expired = bookingService.expirePendingBookings(15);
-        if (expired > 0) {
-            log.info("Expired {} pending bookings", expired);
+        jobRunner.run("expire-pending-bookings", Duration.ofMinutes(10), Duration.ofMinutes(4),
+                bookingExpiryService::expirePendingBookings);
+    }
+
+    @Scheduled(fixedDelayString = "${booking.outbox.poll-interval:PT1S}")
+    public void relayBookingEvents() {
+        try {
+            bookingOutboxRelay.relay();
+        } catch (RuntimeException e) {
+            log.warn("Booking outbox relay failed, the batch will be retried", e);
         }
     }
 
     @Scheduled(fixedRate = 60000)
+    public void purgeIdempotencyKeys() {
+        bookingIdempotencyService.evictExpired();
+        jobRunner.run("purge-idempotency-keys", Duration.ofMinutes(5), Duration.ofSeconds(50),
+                bookingIdempotencyService::purgeStoredKeys);
+    }
+
+    // Sessions change status on time through SessionTransitionScheduler; this sweep only catches stragglers.
+    @Scheduled(fixedRateString = "${session.status.sweep-interval:PT10M}")
     public void updateSessionStatuses() {
-        int updated = sessionService.updateSessionStatuses();
-        if (updated > 0) {
-            log.debug("Updated {} session statuses", updated);
-        }
+        // The lease follows the sweep interval, so any interval still runs once per tick.
+        jobRunner.run("update-session-statuses",
+                sessionStatusSweepInterval, sessionStatusSweepInterval.dividedBy(2), () -> {
+            int updated = sessionService.updateSessionStatuses();
+            if (updated > 0) {
+                log.debug("Updated {} session statuses", updated);
+            }
+        });
+    }
+
+    @Scheduled(cron = "${analytics.rollup.reconcile-cron:0 15 * * * *}")
+    public void reconcileRevenueRollups() {
+        jobRunner.run("reconcile-revenue-rollups", Duration.ofMinutes(30), Duration.ofMinutes(5),
+                revenueRollupService::reconcile);
     }
 }
@@ -1,10 +1,16 @@
 package org.example.db_project.controller;
 
 import lombok.RequiredArgsConstructor;
+import org.example.db_project.dto.response.DailyRevenueResponse;
+import org.example.db_project.dto.response.HallTypeRevenueResponse;
 import org.example.db_project.dto.response.MovieRevenueResponse;
+import org.example.db_project.dto.response.SessionOccupancyResponse;
 import org.example.db_project.service.AnalyticsService;
+import org.example.db_project.service.OccupancyStreamService;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.List;
 
@@ -13,6 +19,7 @@ import java.util.List;
 @RequiredArgsConstructor
 public class AnalyticsController {
     private final AnalyticsService analyticsService;
+    private final OccupancyStreamService occupancyStreamService;
 
     @GetMapping("/movies/revenue")
     public ResponseEntity<List<MovieRevenueResponse>> getTopMoviesByRevenue(
@@ -21,17 +28,22 @@ public class AnalyticsController {
     }
 
     @GetMapping("/sessions/occupancy")
-    public ResponseEntity<List<Object[]>> getSessionOccupancyStats() {
+    public ResponseEntity<List<SessionOccupancyResponse>> getSessionOccupancyStats() {
         return ResponseEntity.ok(analyticsService.getSessionOccupancyStats());
     }
 
+    @GetMapping(path = "/sessions/occupancy/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamSessionOccupancy() {
+        return occupancyStreamService.subscribeToOccupancy();
+    }
+
     @GetMapping("/revenue/by-hall-type")
-    public ResponseEntity<List<Object[]>> getRevenueByHallType() {
+    public ResponseEntity<List<HallTypeRevenueResponse>> getRevenueByHallType() {
         return ResponseEntity.ok(analyticsService.getRevenueByHallType());
     }
 
     @GetMapping("/revenue/daily")
-    public ResponseEntity<List<Object[]>> getDailyRevenue(
+    public ResponseEntity<List<DailyRevenueResponse>> getDailyRevenue(
             @RequestParam(defaultValue = "30") int days) {
         return ResponseEntity.ok(analyticsService.getDailyRevenue(days));
     }
@@ -4,9 +4,10 @@ import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.example.db_project.dto.request.CreateBookingRequest;
 import org.example.db_project.dto.request.UpdateBookingStatusRequest;
+import org.example.db_project.dto.response.BookingHistoryResponse;
 import org.example.db_project.dto.response.BookingResponse;
+import org.example.db_project.service.BookingIdempotencyService;
 import org.example.db_project.service.BookingService;
-import org.springframework.data.domain.Page;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -16,10 +17,15 @@ import org.springframework.web.bind.annotation.*;
 @RequiredArgsConstructor
 public class BookingController {
     private final BookingService bookingService;
+    private final BookingIdempotencyService bookingIdempotencyService;
 
     @PostMapping
-    public ResponseEntity<BookingResponse> createBooking(@Valid @RequestBody CreateBookingRequest request) {
-        BookingResponse booking = bookingService.createBooking(request);
+    public ResponseEntity<BookingResponse> createBooking(
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
+            @Valid @RequestBody CreateBookingRequest request) {
+        BookingResponse booking = idempotencyKey != null
+                ? bookingIdempotencyService.createBooking(idempotencyKey, request)
+                : bookingService.createBooking(request);
         return ResponseEntity.status(HttpStatus.CREATED).body(booking);
     }
 
@@ -29,11 +35,11 @@ public class BookingController {
     }
 
     @GetMapping("/user/{userId}")
-    public ResponseEntity<Page<BookingResponse>> getUserBookings(
+    public ResponseEntity<BookingHistoryResponse> getUserBookings(
             @PathVariable Long userId,
-            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(required = false) String cursor,
             @RequestParam(defaultValue = "20") int size) {
-        return ResponseEntity.ok(bookingService.getUserBookings(userId, page, size));
+        return ResponseEntity.ok(bookingService.getUserBookingHistory(userId, cursor, size));
     }
 
     @PatchMapping("/{id}/status")
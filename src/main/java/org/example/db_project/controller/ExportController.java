@@ -0,0 +1,55 @@
+package org.example.db_project.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.example.db_project.domain.enums.ExportFormat;
+import org.example.db_project.service.ExportService;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.time.LocalDate;
+
+@RestController
+@RequestMapping("/api/exports")
+@RequiredArgsConstructor
+public class ExportController {
+    private final ExportService exportService;
+
+    @GetMapping("/revenue/daily")
+    public ResponseEntity<StreamingResponseBody> exportDailyRevenue(
+            @RequestParam(defaultValue = "365") int days,
+            @RequestParam(defaultValue = "CSV") ExportFormat format) {
+        return stream("daily-revenue", format, out -> exportService.exportDailyRevenue(days, format, out));
+    }
+
+    @GetMapping("/sessions/occupancy")
+    public ResponseEntity<StreamingResponseBody> exportSessionOccupancy(
+            @RequestParam(defaultValue = "CSV") ExportFormat format) {
+        return stream("session-occupancy", format, out -> exportService.exportSessionOccupancy(format, out));
+    }
+
+    @GetMapping("/bookings")
+    public ResponseEntity<StreamingResponseBody> exportBookings(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "CSV") ExportFormat format) {
+        if (to.isBefore(from)) {
+            throw new IllegalStateException("Export range end " + to + " is before start " + from);
+        }
+        return stream("bookings-" + from + "-" + to, format, out -> exportService.exportBookings(from, to, format, out));
+    }
+
+    private ResponseEntity<StreamingResponseBody> stream(String name, ExportFormat format, StreamingResponseBody body) {
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(format.getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename(name + "." + format.getExtension())
+                        .build()
+                        .toString())
+                .body(body);
+    }
+}
@@ -1,6 +1,8 @@
 package org.example.db_project.controller;
 
 import lombok.RequiredArgsConstructor;
+import org.example.db_project.domain.enums.HallType;
+import org.example.db_project.dto.response.FreeSlotResponse;
 import org.example.db_project.dto.response.HallResponse;
 import org.example.db_project.dto.response.SeatResponse;
 import org.example.db_project.service.HallService;
@@ -31,8 +33,23 @@ public class HallController {
     @GetMapping("/available")
     public ResponseEntity<List<HallResponse>> getAvailableHalls(
             @RequestParam OffsetDateTime startTime,
-            @RequestParam OffsetDateTime endTime) {
-        return ResponseEntity.ok(hallService.getAvailableHalls(startTime, endTime));
+            @RequestParam OffsetDateTime endTime,
+            @RequestParam(required = false) HallType hallType) {
+        return ResponseEntity.ok(hallService.getAvailableHalls(startTime, endTime, hallType));
+    }
+
+    @GetMapping("/{id}/free-slots")
+    public ResponseEntity<List<FreeSlotResponse>> getFreeSlots(
+            @PathVariable Long id,
+            @RequestParam OffsetDateTime from,
+            @RequestParam int lengthMinutes,
+            @RequestParam(defaultValue = "5") int count) {
+        return ResponseEntity.ok(hallService.getFreeSlots(id, from, lengthMinutes, count));
+    }
+
+    @PostMapping("/layouts/reload")
+    public ResponseEntity<List<HallResponse>> reloadLayouts() {
+        return ResponseEntity.ok(hallService.reloadLayouts());
     }
 
     @GetMapping("/{id}/seats")
@@ -3,14 +3,19 @@ package org.example.db_project.controller;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.example.db_project.dto.request.CreateSessionRequest;
+import org.example.db_project.dto.request.ScheduleSessionsRequest;
+import org.example.db_project.dto.response.ScheduleSessionsResponse;
 import org.example.db_project.dto.response.SeatResponse;
 import org.example.db_project.dto.response.SessionResponse;
+import org.example.db_project.service.OccupancyStreamService;
 import org.example.db_project.service.SeatService;
 import org.example.db_project.service.SessionService;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.time.LocalDate;
 import java.util.List;
@@ -21,6 +26,7 @@ import java.util.List;
 public class SessionController {
     private final SessionService sessionService;
     private final SeatService seatService;
+    private final OccupancyStreamService occupancyStreamService;
 
     @PostMapping
     public ResponseEntity<SessionResponse> createSession(@Valid @RequestBody CreateSessionRequest request) {
@@ -28,6 +34,12 @@ public class SessionController {
         return ResponseEntity.status(HttpStatus.CREATED).body(session);
     }
 
+    @PostMapping("/bulk")
+    public ResponseEntity<ScheduleSessionsResponse> scheduleSessions(
+            @Valid @RequestBody ScheduleSessionsRequest request) {
+        return ResponseEntity.ok(sessionService.scheduleSessions(request));
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<SessionResponse> getSessionById(@PathVariable Long id) {
         return ResponseEntity.ok(sessionService.getSessionById(id));
@@ -51,6 +63,11 @@ public class SessionController {
                 session.getHall().getId(), id));
     }
 
+    @GetMapping(path = "/{id}/seats/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamSeatAvailability(@PathVariable Long id) {
+        return occupancyStreamService.subscribeToSession(id);
+    }
+
     @PostMapping("/{id}/cancel")
     public ResponseEntity<Void> cancelSession(@PathVariable Long id) {
         sessionService.cancelSession(id);
@@ -0,0 +1,6 @@
+package org.example.db_project.domain.enums;
+
+public enum SeatLockingMode {
+    ROW_LOCK,
+    RESERVATION
+}
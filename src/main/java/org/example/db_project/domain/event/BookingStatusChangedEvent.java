@@ -0,0 +1,18 @@
+package org.example.db_project.domain.event;
+
+import org.example.db_project.domain.enums.BookingStatus;
+
+import java.time.OffsetDateTime;
+
+/**
+ * A committed booking state change, delivered by the outbox relay at least once.
+ * {@code fromStatus} is null for a newly created booking.
+ */
+public record BookingStatusChangedEvent(
+        long outboxId,
+        Long bookingId,
+        Long sessionId,
+        BookingStatus fromStatus,
+        BookingStatus toStatus,
+        OffsetDateTime occurredAt) {
+}
@@ -0,0 +1,5 @@
+package org.example.db_project.domain.event;
+
+/** Changes made on other instances may have been missed; caches must reload from the database. */
+public record CachesStaleEvent() {
+}
@@ -0,0 +1,5 @@
+package org.example.db_project.domain.event;
+
+/** Halls or seats were changed in the database; hall layouts and the caches built on them must reload. */
+public record HallLayoutsChangedEvent() {
+}
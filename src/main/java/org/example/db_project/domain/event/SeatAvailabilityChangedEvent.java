@@ -0,0 +1,13 @@
+package org.example.db_project.domain.event;
+
+import java.util.List;
+
+public record SeatAvailabilityChangedEvent(Long sessionId, List<Long> seatIds, boolean booked) {
+    public static SeatAvailabilityChangedEvent booked(Long sessionId, List<Long> seatIds) {
+        return new SeatAvailabilityChangedEvent(sessionId, List.copyOf(seatIds), true);
+    }
+
+    public static SeatAvailabilityChangedEvent released(Long sessionId, List<Long> seatIds) {
+        return new SeatAvailabilityChangedEvent(sessionId, List.copyOf(seatIds), false);
+    }
+}
@@ -0,0 +1,4 @@
+package org.example.db_project.domain.event;
+
+public record SeatHoldExpiredEvent(Long bookingId) {
+}
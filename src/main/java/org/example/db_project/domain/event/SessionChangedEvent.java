@@ -0,0 +1,23 @@
+package org.example.db_project.domain.event;
+
+import org.example.db_project.domain.entity.Session;
+import org.example.db_project.domain.enums.SessionStatus;
+
+import java.time.OffsetDateTime;
+
+public record SessionChangedEvent(
+        Long sessionId,
+        Long hallId,
+        OffsetDateTime startTime,
+        OffsetDateTime endTime,
+        SessionStatus status) {
+
+    public static SessionChangedEvent of(Session session) {
+        return new SessionChangedEvent(
+                session.getId(),
+                session.getHall().getId(),
+                session.getStartTime(),
+                session.getEndTime(),
+                session.getStatus());
+    }
+}
@@ -2,8 +2,7 @@ package org.example.db_project.domain.repository;
 
 import org.example.db_project.domain.entity.Booking;
 import org.example.db_project.domain.enums.BookingStatus;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Modifying;
@@ -12,6 +11,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import jakarta.persistence.LockModeType;
 
+import java.math.BigDecimal;
 import java.time.OffsetDateTime;
 import java.util.List;
 import java.util.Optional;
@@ -33,22 +33,85 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
     Optional<Booking> findByIdWithOptimisticLock(@Param("id") Long id);
 
     @Query("""
-            SELECT b FROM Booking b
-            JOIN FETCH b.session s
-            JOIN FETCH s.movie m
+            SELECT b.id AS id, b.createdAt AS createdAt, b.status AS status,
+                   b.totalPrice AS totalPrice, b.session.id AS sessionId
+            FROM Booking b
             WHERE b.user.id = :userId
-            ORDER BY b.createdAt DESC
+            ORDER BY b.createdAt DESC, b.id DESC
             """)
-    Page<Booking> findUserBookingsWithDetails(@Param("userId") Long userId, Pageable pageable);
+    List<BookingHistoryView> findUserBookingHistory(@Param("userId") Long userId, Limit limit);
 
     @Query("""
-            SELECT b FROM Booking b
-            WHERE b.status = 'PENDING'
-            AND b.createdAt < :expirationTime
+            SELECT b.id AS id, b.createdAt AS createdAt, b.status AS status,
+                   b.totalPrice AS totalPrice, b.session.id AS sessionId
+            FROM Booking b
+            WHERE b.user.id = :userId
+            AND b.createdAt <= :createdAt
+            AND (b.createdAt < :createdAt OR b.id < :id)
+            ORDER BY b.createdAt DESC, b.id DESC
+            """)
+    List<BookingHistoryView> findUserBookingHistoryBefore(
+            @Param("userId") Long userId,
+            @Param("createdAt") OffsetDateTime createdAt,
+            @Param("id") Long id,
+            Limit limit);
+
+    @Modifying
+    @Query("""
+            UPDATE Booking b SET b.status = 'EXPIRED', b.version = b.version + 1
+            WHERE b.id = :id
+            AND b.status = 'PENDING'
             """)
-    List<Booking> findExpiredPendingBookings(@Param("expirationTime") OffsetDateTime expirationTime);
+    int expireIfPending(@Param("id") Long id);
+
+    @Query("SELECT b.id AS bookingId, b.createdAt AS createdAt FROM Booking b WHERE b.status = 'PENDING'")
+    List<PendingHoldView> findPendingHolds();
+
+    @Modifying
+    @Query(value = """
+            INSERT INTO booking_idempotency_keys (idempotency_key, request_hash)
+            VALUES (:key, :requestHash)
+            ON CONFLICT (idempotency_key) DO NOTHING
+            """, nativeQuery = true)
+    int claimIdempotencyKey(@Param("key") String key, @Param("requestHash") String requestHash);
 
     @Modifying
-    @Query("UPDATE Booking b SET b.status = 'EXPIRED' WHERE b.id IN :ids")
-    int expireBookings(@Param("ids") List<Long> ids);
+    @Query(value = "UPDATE booking_idempotency_keys SET booking_id = :bookingId WHERE idempotency_key = :key",
+            nativeQuery = true)
+    int attachIdempotencyKey(@Param("key") String key, @Param("bookingId") Long bookingId);
+
+    @Query(value = """
+            SELECT k.booking_id AS bookingId, k.request_hash AS requestHash
+            FROM booking_idempotency_keys k
+            WHERE k.idempotency_key = :key
+            """, nativeQuery = true)
+    Optional<IdempotencyKeyView> findIdempotencyKey(@Param("key") String key);
+
+    @Modifying
+    @Query(value = "DELETE FROM booking_idempotency_keys WHERE created_at < :before", nativeQuery = true)
+    int deleteIdempotencyKeysCreatedBefore(@Param("before") OffsetDateTime before);
+
+    interface BookingHistoryView {
+        Long getId();
+
+        OffsetDateTime getCreatedAt();
+
+        BookingStatus getStatus();
+
+        BigDecimal getTotalPrice();
+
+        Long getSessionId();
+    }
+
+    interface PendingHoldView {
+        Long getBookingId();
+
+        OffsetDateTime getCreatedAt();
+    }
+
+    interface IdempotencyKeyView {
+        Long getBookingId();
+
+        String getRequestHash();
+    }
 }
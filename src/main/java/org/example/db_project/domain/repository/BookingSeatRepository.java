@@ -2,31 +2,81 @@ package org.example.db_project.domain.repository;
 
 import org.example.db_project.domain.entity.BookingSeat;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface BookingSeatRepository extends JpaRepository<BookingSeat, Long> {
     @Query("""
-            SELECT CASE WHEN COUNT(bs) > 0 THEN true ELSE false END
-            FROM BookingSeat bs
+            SELECT bs.seat.id FROM BookingSeat bs
             JOIN bs.booking b
-            WHERE bs.seat.id = :seatId
-            AND b.session.id = :sessionId
+            WHERE b.session.id = :sessionId
             AND b.status NOT IN ('CANCELLED', 'EXPIRED')
             """)
-    boolean isSeatBookedForSession(
-            @Param("seatId") Long seatId,
-            @Param("sessionId") Long sessionId);
+    List<Long> findBookedSeatIdsForSession(@Param("sessionId") Long sessionId);
 
     @Query("""
             SELECT bs.seat.id FROM BookingSeat bs
             JOIN bs.booking b
             WHERE b.session.id = :sessionId
+            AND bs.seat.id IN :seatIds
             AND b.status NOT IN ('CANCELLED', 'EXPIRED')
             """)
-    List<Long> findBookedSeatIdsForSession(@Param("sessionId") Long sessionId);
+    List<Long> findBookedSeatIdsForSession(
+            @Param("sessionId") Long sessionId,
+            @Param("seatIds") Collection<Long> seatIds);
+
+    @Query("""
+            SELECT bs FROM BookingSeat bs
+            WHERE bs.booking.id IN :bookingIds
+            ORDER BY bs.id
+            """)
+    List<BookingSeat> findByBookingIds(@Param("bookingIds") Collection<Long> bookingIds);
+
+    @Query("""
+            SELECT b.session.id AS sessionId, bs.seat.id AS seatId
+            FROM BookingSeat bs
+            JOIN bs.booking b
+            WHERE b.id IN :bookingIds
+            """)
+    List<SessionSeatView> findSessionSeatsByBookingIds(@Param("bookingIds") List<Long> bookingIds);
+
+    @Modifying(flushAutomatically = true)
+    @Query(value = """
+            INSERT INTO session_seat_reservations (session_id, seat_id, booking_id)
+            SELECT :sessionId, s.id, :bookingId FROM seats s
+            WHERE s.id IN (:seatIds)
+            ORDER BY s.id
+            ON CONFLICT (session_id, seat_id) DO NOTHING
+            """, nativeQuery = true)
+    int reserveSeats(
+            @Param("sessionId") Long sessionId,
+            @Param("bookingId") Long bookingId,
+            @Param("seatIds") Collection<Long> seatIds);
+
+    @Query(value = """
+            SELECT r.seat_id FROM session_seat_reservations r
+            WHERE r.session_id = :sessionId
+            AND r.seat_id IN (:seatIds)
+            AND r.booking_id <> :bookingId
+            """, nativeQuery = true)
+    List<Long> findSeatIdsReservedByOtherBookings(
+            @Param("sessionId") Long sessionId,
+            @Param("bookingId") Long bookingId,
+            @Param("seatIds") Collection<Long> seatIds);
+
+    @Modifying
+    @Query(value = "DELETE FROM session_seat_reservations WHERE booking_id IN (:bookingIds)", nativeQuery = true)
+    int releaseReservations(@Param("bookingIds") Collection<Long> bookingIds);
+
+    interface SessionSeatView {
+        Long getSessionId();
+
+        Long getSeatId();
+    }
 }
@@ -8,6 +8,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import jakarta.persistence.LockModeType;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -17,21 +18,31 @@ public interface SeatRepository extends JpaRepository<Seat, Long> {
     @Query("SELECT s FROM Seat s WHERE s.hall.id = :hallId ORDER BY s.rowNumber, s.seatNumber")
     List<Seat> findByHallIdOrdered(@Param("hallId") Long hallId);
 
+    @Query("SELECT s FROM Seat s ORDER BY s.hall.id, s.rowNumber, s.seatNumber")
+    List<Seat> findAllOrderedByHall();
+
+    @Query("SELECT s.id FROM Seat s WHERE s.hall.id = :hallId ORDER BY s.rowNumber, s.seatNumber")
+    List<Long> findIdsByHallIdOrdered(@Param("hallId") Long hallId);
+
     @Lock(LockModeType.PESSIMISTIC_WRITE)
     @Query("SELECT s FROM Seat s WHERE s.id IN :seatIds")
     List<Seat> findByIdsWithLock(@Param("seatIds") List<Long> seatIds);
 
     @Query(value = """
-            SELECT COUNT(*) FROM seats s
-            WHERE s.hall_id = :hallId
-            AND s.id NOT IN (
-                SELECT bs.seat_id FROM booking_seats bs
-                JOIN bookings b ON bs.booking_id = b.id
-                WHERE b.session_id = :sessionId
-                AND b.status NOT IN ('CANCELLED', 'EXPIRED')
-            )
+            SELECT s.id AS "sessionId", COALESCE(hs.seat_count, 0) - COUNT(bs.id) AS "availableSeats"
+            FROM sessions s
+            LEFT JOIN (SELECT hall_id, COUNT(*) AS seat_count FROM seats GROUP BY hall_id) hs
+                ON hs.hall_id = s.hall_id
+            LEFT JOIN bookings b ON b.session_id = s.id AND b.status NOT IN ('CANCELLED', 'EXPIRED')
+            LEFT JOIN booking_seats bs ON bs.booking_id = b.id
+            WHERE s.id IN (:sessionIds)
+            GROUP BY s.id, hs.seat_count
             """, nativeQuery = true)
-    int countAvailableSeatsForSession(
-            @Param("hallId") Long hallId,
-            @Param("sessionId") Long sessionId);
+    List<SessionAvailabilityView> countAvailableSeatsForSessions(@Param("sessionIds") Collection<Long> sessionIds);
+
+    interface SessionAvailabilityView {
+        Long getSessionId();
+
+        Long getAvailableSeats();
+    }
 }
@@ -10,8 +10,9 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
-import java.time.LocalDate;
+import java.math.BigDecimal;
 import java.time.OffsetDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -25,21 +26,33 @@ public interface SessionRepository extends JpaRepository<Session, Long> {
             """)
     Optional<Session> findByIdWithDetails(@Param("id") Long id);
 
+    @Query("""
+            SELECT s FROM Session s
+            JOIN FETCH s.movie
+            JOIN FETCH s.hall
+            WHERE s.id IN :ids
+            """)
+    List<Session> findAllByIdWithDetails(@Param("ids") Collection<Long> ids);
+
     @Query("""
             SELECT s FROM Session s
             JOIN FETCH s.movie m
             JOIN FETCH s.hall h
-            WHERE CAST(s.startTime AS date) = :date
+            WHERE s.startTime >= :from
+            AND s.startTime < :to
             AND s.status = :status
             ORDER BY s.startTime
             """)
-    List<Session> findByDateAndStatus(
-            @Param("date") LocalDate date,
+    List<Session> findStartingBetweenWithStatus(
+            @Param("from") OffsetDateTime from,
+            @Param("to") OffsetDateTime to,
             @Param("status") SessionStatus status);
 
     @Query("""
             SELECT s FROM Session s
-            WHERE s.movie.id = :movieId
+            JOIN FETCH s.movie m
+            JOIN FETCH s.hall h
+            WHERE m.id = :movieId
             AND s.startTime > CURRENT_TIMESTAMP
             AND s.status = 'SCHEDULED'
             ORDER BY s.startTime
@@ -58,6 +71,18 @@ public interface SessionRepository extends JpaRepository<Session, Long> {
             @Param("startTime") OffsetDateTime startTime,
             @Param("endTime") OffsetDateTime endTime);
 
+    @Query("SELECT s.id FROM Session s WHERE s.status IN ('SCHEDULED', 'ONGOING')")
+    List<Long> findActiveSessionIds();
+
+    @Query("SELECT s.hall.id FROM Session s WHERE s.id = :id")
+    Optional<Long> findHallIdById(@Param("id") Long id);
+
+    @Query("""
+            SELECT s.hall.id AS hallId, s.basePrice AS basePrice, s.startTime AS startTime
+            FROM Session s WHERE s.id = :id
+            """)
+    Optional<SessionPricingView> findPricingById(@Param("id") Long id);
+
     @Modifying
     @Query("UPDATE Session s SET s.status = :status WHERE s.id = :id")
     void updateStatus(@Param("id") Long id, @Param("status") SessionStatus status);
@@ -78,4 +103,79 @@ public interface SessionRepository extends JpaRepository<Session, Long> {
             AND s.endTime <= CURRENT_TIMESTAMP
             """)
     int updateCompletedSessions();
+
+    @Modifying
+    @Query("""
+            UPDATE Session s SET s.status = 'ONGOING'
+            WHERE s.id = :id
+            AND s.status = 'SCHEDULED'
+            AND s.startTime <= :now
+            AND s.endTime > :now
+            """)
+    int startSession(@Param("id") Long id, @Param("now") OffsetDateTime now);
+
+    @Modifying
+    @Query("""
+            UPDATE Session s SET s.status = 'COMPLETED'
+            WHERE s.id = :id
+            AND s.status IN ('SCHEDULED', 'ONGOING')
+            AND s.endTime <= :now
+            """)
+    int completeSession(@Param("id") Long id, @Param("now") OffsetDateTime now);
+
+    @Query("""
+            SELECT s.id AS id, s.status AS status, s.startTime AS startTime, s.endTime AS endTime
+            FROM Session s
+            WHERE s.status IN ('SCHEDULED', 'ONGOING')
+            """)
+    List<SessionTimesView> findUnfinishedSessionTimes();
+
+    @Query("""
+            SELECT s.id AS id, s.hall.id AS hallId, s.startTime AS startTime, s.endTime AS endTime
+            FROM Session s
+            WHERE s.status != 'CANCELLED'
+            AND s.endTime > :now
+            """)
+    List<SessionSlotView> findSessionSlotsEndingAfter(@Param("now") OffsetDateTime now);
+
+    @Query("""
+            SELECT s.id AS id, s.hall.id AS hallId, s.startTime AS startTime, s.endTime AS endTime
+            FROM Session s
+            WHERE s.hall.id IN :hallIds
+            AND s.startTime < :to
+            AND s.endTime > :from
+            AND s.status != 'CANCELLED'
+            """)
+    List<SessionSlotView> findSessionSlotsInHalls(
+            @Param("hallIds") Collection<Long> hallIds,
+            @Param("from") OffsetDateTime from,
+            @Param("to") OffsetDateTime to);
+
+    interface SessionSlotView {
+        Long getId();
+
+        Long getHallId();
+
+        OffsetDateTime getStartTime();
+
+        OffsetDateTime getEndTime();
+    }
+
+    interface SessionTimesView {
+        Long getId();
+
+        SessionStatus getStatus();
+
+        OffsetDateTime getStartTime();
+
+        OffsetDateTime getEndTime();
+    }
+
+    interface SessionPricingView {
+        Long getHallId();
+
+        BigDecimal getBasePrice();
+
+        OffsetDateTime getStartTime();
+    }
 }
@@ -1,5 +1,6 @@
 package org.example.db_project.dto.request;
 
+import jakarta.validation.constraints.DecimalMin;
 import jakarta.validation.constraints.NotEmpty;
 import jakarta.validation.constraints.NotNull;
 import lombok.AllArgsConstructor;
@@ -7,6 +8,7 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.math.BigDecimal;
 import java.util.List;
 
 @Data
@@ -20,4 +22,7 @@ public class CreateBookingRequest {
     private Long sessionId;
     @NotEmpty(message = "At least one seat must be selected")
     private List<Long> seatIds;
+    /** Total shown to the user from the seat map; the booking is refused if the price has moved since. */
+    @DecimalMin(value = "0.00", message = "Expected total price cannot be negative")
+    private BigDecimal expectedTotalPrice;
 }
@@ -0,0 +1,22 @@
+package org.example.db_project.dto.request;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ScheduleSessionsRequest {
+    @NotEmpty(message = "At least one session is required")
+    @Size(max = 2000, message = "At most 2000 sessions can be scheduled at once")
+    private List<@NotNull @Valid CreateSessionRequest> sessions;
+}
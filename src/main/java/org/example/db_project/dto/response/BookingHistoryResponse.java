@@ -0,0 +1,17 @@
+package org.example.db_project.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookingHistoryResponse {
+    private List<BookingResponse> bookings;
+    private String nextCursor;
+}
@@ -0,0 +1,20 @@
+package org.example.db_project.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DailyRevenueResponse {
+    private LocalDate date;
+    private Long bookingsCount;
+    private BigDecimal revenue;
+    private Long ticketsSold;
+}
@@ -0,0 +1,18 @@
+package org.example.db_project.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.OffsetDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class FreeSlotResponse {
+    private Long hallId;
+    private OffsetDateTime startTime;
+    private OffsetDateTime endTime;
+}
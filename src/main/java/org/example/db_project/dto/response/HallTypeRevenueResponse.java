@@ -0,0 +1,20 @@
+package org.example.db_project.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.example.db_project.domain.enums.HallType;
+
+import java.math.BigDecimal;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class HallTypeRevenueResponse {
+    private HallType hallType;
+    private Long totalBookings;
+    private BigDecimal totalRevenue;
+    private BigDecimal avgBookingValue;
+}
@@ -0,0 +1,18 @@
+package org.example.db_project.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ScheduleSessionsResponse {
+    private int created;
+    private int rejected;
+    private List<SessionScheduleResult> results;
+}
@@ -0,0 +1,19 @@
+package org.example.db_project.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SeatAvailabilityUpdate {
+    private Long sessionId;
+    private List<Long> bookedSeatIds;
+    private List<Long> releasedSeatIds;
+    private Integer availableSeats;
+}
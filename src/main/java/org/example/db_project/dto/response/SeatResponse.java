@@ -20,4 +20,5 @@ public class SeatResponse {
     private BigDecimal priceMultiplier;
     private String seatLabel;
     private boolean available;
+    private BigDecimal price;
 }
@@ -0,0 +1,22 @@
+package org.example.db_project.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SessionOccupancyResponse {
+    private Long sessionId;
+    private String movieTitle;
+    private String hallName;
+    private Integer capacity;
+    private Long bookedSeats;
+    private BigDecimal occupancyPercent;
+    private BigDecimal priceFactor;
+}
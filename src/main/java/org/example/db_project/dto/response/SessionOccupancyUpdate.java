@@ -0,0 +1,17 @@
+package org.example.db_project.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SessionOccupancyUpdate {
+    private Long sessionId;
+    private Integer capacity;
+    private Integer bookedSeats;
+    private Integer availableSeats;
+}
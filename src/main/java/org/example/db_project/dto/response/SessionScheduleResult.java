@@ -0,0 +1,30 @@
+package org.example.db_project.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SessionScheduleResult {
+    private int index;
+    private Outcome outcome;
+    private Long sessionId;
+    private OffsetDateTime startTime;
+    private OffsetDateTime endTime;
+    private List<Long> conflictingSessionIds;
+    private List<Integer> conflictingIndexes;
+    private String message;
+
+    public enum Outcome {
+        CREATED,
+        CONFLICT,
+        INVALID
+    }
+}
@@ -33,6 +33,15 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.CONFLICT).body(response);
     }
 
+    @ExceptionHandler(PriceChangedException.class)
+    public ResponseEntity<ErrorResponse> handlePriceChanged(PriceChangedException ex) {
+        log.warn("Price changed: {}", ex.getMessage());
+        ErrorResponse response = ErrorResponse.of(HttpStatus.CONFLICT, ex.getMessage());
+        response.getDetails().put("expectedTotalPrice", ex.getExpectedTotalPrice());
+        response.getDetails().put("totalPrice", ex.getTotalPrice());
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(response);
+    }
+
     @ExceptionHandler(SessionNotAvailableException.class)
     public ResponseEntity<ErrorResponse> handleSessionNotAvailable(SessionNotAvailableException ex) {
         log.warn("Session not available: {}", ex.getMessage());
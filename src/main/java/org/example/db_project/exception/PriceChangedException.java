@@ -0,0 +1,22 @@
+package org.example.db_project.exception;
+
+import java.math.BigDecimal;
+
+public class PriceChangedException extends RuntimeException {
+    private final BigDecimal expectedTotalPrice;
+    private final BigDecimal totalPrice;
+
+    public PriceChangedException(BigDecimal expectedTotalPrice, BigDecimal totalPrice) {
+        super("Total price changed from " + expectedTotalPrice + " to " + totalPrice);
+        this.expectedTotalPrice = expectedTotalPrice;
+        this.totalPrice = totalPrice;
+    }
+
+    public BigDecimal getExpectedTotalPrice() {
+        return expectedTotalPrice;
+    }
+
+    public BigDecimal getTotalPrice() {
+        return totalPrice;
+    }
+}
@@ -2,146 +2,157 @@ package org.example.db_project.service;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.example.db_project.domain.enums.HallType;
+import org.example.db_project.dto.response.DailyRevenueResponse;
+import org.example.db_project.dto.response.HallTypeRevenueResponse;
 import org.example.db_project.dto.response.MovieRevenueResponse;
+import org.example.db_project.dto.response.SessionOccupancyResponse;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import jakarta.persistence.EntityManager;
-import jakarta.persistence.PersistenceContext;
 
-import java.math.BigDecimal;
-import java.math.RoundingMode;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
 import java.util.List;
+import java.util.Map;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class AnalyticsService {
-    @PersistenceContext
-    private EntityManager entityManager;
+    static final String SESSION_OCCUPANCY_SQL = """
+            SELECT
+                s.id as session_id,
+                m.title as movie_title,
+                h.name as hall_name,
+                h.hall_type,
+                s.start_time,
+                h.capacity,
+                COUNT(DISTINCT bs.seat_id) as booked_seats,
+                ROUND(COUNT(DISTINCT bs.seat_id)::numeric / h.capacity * 100, 2) as occupancy_percent
+            FROM sessions s
+            JOIN movies m ON s.movie_id = m.id
+            JOIN halls h ON s.hall_id = h.id
+            LEFT JOIN bookings b ON s.id = b.session_id AND b.status NOT IN ('CANCELLED', 'EXPIRED')
+            LEFT JOIN booking_seats bs ON b.id = bs.booking_id
+            WHERE s.status = 'SCHEDULED'
+            AND s.start_time > CURRENT_TIMESTAMP
+            GROUP BY s.id, m.title, h.name, h.hall_type, s.start_time, h.capacity
+            ORDER BY s.start_time
+            """;
+    static final String TOP_MOVIES_SQL = """
+            SELECT
+                m.id as movie_id,
+                m.title,
+                COALESCE(gs.genres, 'No genres') as genres,
+                COALESCE(r.revenue, 0) as revenue,
+                COALESCE(r.bookings_count, 0) as bookings_count,
+                COALESCE(r.tickets_sold, 0) as tickets_sold,
+                COALESCE(ROUND(r.revenue / NULLIF(r.tickets_sold, 0), 2), 0) as avg_ticket_price
+            FROM movies m
+            LEFT JOIN (
+                SELECT
+                    movie_id,
+                    SUM(revenue) as revenue,
+                    SUM(bookings_count) as bookings_count,
+                    SUM(tickets_sold) as tickets_sold
+                FROM daily_movie_revenue
+                WHERE revenue_date >= DATE_TRUNC('month', CURRENT_DATE)
+                GROUP BY movie_id
+            ) r ON m.id = r.movie_id
+            LEFT JOIN LATERAL (
+                SELECT STRING_AGG(g.name, ', ' ORDER BY g.name) as genres
+                FROM movie_genres mg
+                JOIN genres g ON mg.genre_id = g.id
+                WHERE mg.movie_id = m.id
+            ) gs ON true
+            WHERE m.deleted_at IS NULL
+            ORDER BY revenue DESC
+            LIMIT :limit
+            """;
+    static final String REVENUE_BY_HALL_TYPE_SQL = """
+            SELECT
+                hall_type,
+                SUM(bookings_count) as total_bookings,
+                SUM(revenue) as total_revenue,
+                ROUND(SUM(revenue) / SUM(bookings_count), 2) as avg_booking_value
+            FROM daily_hall_type_revenue
+            GROUP BY hall_type
+            HAVING SUM(bookings_count) > 0
+            ORDER BY total_revenue DESC
+            """;
+    static final String DAILY_REVENUE_SQL = """
+            SELECT
+                revenue_date as booking_date,
+                SUM(bookings_count) as bookings_count,
+                SUM(revenue) as daily_revenue,
+                SUM(tickets_sold) as tickets_sold
+            FROM daily_hall_type_revenue
+            WHERE revenue_date >= CURRENT_DATE - CAST(:days AS integer)
+            GROUP BY revenue_date
+            HAVING SUM(bookings_count) > 0
+            ORDER BY booking_date DESC
+            """;
+
+    private static final RowMapper<MovieRevenueResponse> MOVIE_REVENUE = (rs, rowNum) -> new MovieRevenueResponse(
+            rs.getLong("movie_id"),
+            rs.getString("title"),
+            rs.getString("genres"),
+            rs.getBigDecimal("revenue"),
+            rs.getLong("bookings_count"),
+            rs.getLong("tickets_sold"),
+            rs.getBigDecimal("avg_ticket_price"));
+    private static final RowMapper<HallTypeRevenueResponse> HALL_TYPE_REVENUE = (rs, rowNum) -> new HallTypeRevenueResponse(
+            HallType.valueOf(rs.getString("hall_type")),
+            rs.getLong("total_bookings"),
+            rs.getBigDecimal("total_revenue"),
+            rs.getBigDecimal("avg_booking_value"));
+    private static final RowMapper<DailyRevenueResponse> DAILY_REVENUE = (rs, rowNum) -> new DailyRevenueResponse(
+            rs.getObject("booking_date", LocalDate.class),
+            rs.getLong("bookings_count"),
+            rs.getBigDecimal("daily_revenue"),
+            rs.getLong("tickets_sold"));
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final PricingEngine pricingEngine;
 
     @Transactional(readOnly = true)
-    @SuppressWarnings("unchecked")
     public List<MovieRevenueResponse> getTopMoviesByRevenue(int limit) {
         log.info("Fetching top {} movies by revenue for current month", limit);
-        String sql = """
-                WITH monthly_revenue AS (
-                    SELECT
-                        m.id as movie_id,
-                        m.title,
-                        COALESCE(SUM(b.total_price), 0) as revenue,
-                        COUNT(DISTINCT b.id) as bookings_count,
-                        COUNT(bs.id) as tickets_sold
-                    FROM movies m
-                    LEFT JOIN sessions s ON m.id = s.movie_id
-                    LEFT JOIN bookings b ON s.id = b.session_id AND b.status = 'COMPLETED'
-                    LEFT JOIN booking_seats bs ON b.id = bs.booking_id
-                    WHERE m.deleted_at IS NULL
-                    AND (b.created_at IS NULL OR b.created_at >= DATE_TRUNC('month', CURRENT_DATE))
-                    GROUP BY m.id, m.title
-                ),
-                genre_stats AS (
-                    SELECT
-                        mr.movie_id,
-                        STRING_AGG(g.name, ', ' ORDER BY g.name) as genres
-                    FROM monthly_revenue mr
-                    LEFT JOIN movie_genres mg ON mr.movie_id = mg.movie_id
-                    LEFT JOIN genres g ON mg.genre_id = g.id
-                    GROUP BY mr.movie_id
-                )
-                SELECT
-                    mr.movie_id,
-                    mr.title,
-                    COALESCE(gs.genres, 'No genres') as genres,
-                    mr.revenue,
-                    mr.bookings_count,
-                    mr.tickets_sold
-                FROM monthly_revenue mr
-                LEFT JOIN genre_stats gs ON mr.movie_id = gs.movie_id
-                ORDER BY mr.revenue DESC
-                LIMIT :limit
-                """;
-        List<Object[]> results = entityManager.createNativeQuery(sql)
-                .setParameter("limit", limit)
-                .getResultList();
-        return results.stream()
-                .map(row -> {
-                    BigDecimal revenue = row[3] != null ? new BigDecimal(row[3].toString()) : BigDecimal.ZERO;
-                    Long ticketsSold = row[5] != null ? ((Number) row[5]).longValue() : 0L;
-                    BigDecimal avgPrice = ticketsSold > 0
-                            ? revenue.divide(BigDecimal.valueOf(ticketsSold), 2, RoundingMode.HALF_UP)
-                            : BigDecimal.ZERO;
-                    return MovieRevenueResponse.builder()
-                            .movieId(((Number) row[0]).longValue())
-                            .title((String) row[1])
-                            .genres((String) row[2])
-                            .revenue(revenue)
-                            .bookingsCount(((Number) row[4]).longValue())
-                            .ticketsSold(ticketsSold)
-                            .avgTicketPrice(avgPrice)
-                            .build();
-                })
-                .toList();
+        return jdbcTemplate.query(TOP_MOVIES_SQL, Map.of("limit", limit), MOVIE_REVENUE);
     }
 
     @Transactional(readOnly = true)
-    @SuppressWarnings("unchecked")
-    public List<Object[]> getSessionOccupancyStats() {
-        String sql = """
-                SELECT
-                    s.id as session_id,
-                    m.title as movie_title,
-                    h.name as hall_name,
-                    h.capacity,
-                    COUNT(DISTINCT bs.seat_id) as booked_seats,
-                    ROUND(COUNT(DISTINCT bs.seat_id)::numeric / h.capacity * 100, 2) as occupancy_percent
-                FROM sessions s
-                JOIN movies m ON s.movie_id = m.id
-                JOIN halls h ON s.hall_id = h.id
-                LEFT JOIN bookings b ON s.id = b.session_id AND b.status NOT IN ('CANCELLED', 'EXPIRED')
-                LEFT JOIN booking_seats bs ON b.id = bs.booking_id
-                WHERE s.status = 'SCHEDULED'
-                AND s.start_time > CURRENT_TIMESTAMP
-                GROUP BY s.id, m.title, h.name, h.capacity
-                ORDER BY s.start_time
-                """;
-        return entityManager.createNativeQuery(sql).getResultList();
+    public List<SessionOccupancyResponse> getSessionOccupancyStats() {
+        return jdbcTemplate.query(SESSION_OCCUPANCY_SQL, this::toSessionOccupancy);
     }
 
     @Transactional(readOnly = true)
-    @SuppressWarnings("unchecked")
-    public List<Object[]> getRevenueByHallType() {
-        String sql = """
-                SELECT
-                    h.hall_type,
-                    COUNT(DISTINCT b.id) as total_bookings,
-                    SUM(b.total_price) as total_revenue,
-                    AVG(b.total_price) as avg_booking_value
-                FROM halls h
-                JOIN sessions s ON h.id = s.hall_id
-                JOIN bookings b ON s.id = b.session_id
-                WHERE b.status = 'COMPLETED'
-                GROUP BY h.hall_type
-                ORDER BY total_revenue DESC
-                """;
-        return entityManager.createNativeQuery(sql).getResultList();
+    public List<HallTypeRevenueResponse> getRevenueByHallType() {
+        return jdbcTemplate.query(REVENUE_BY_HALL_TYPE_SQL, HALL_TYPE_REVENUE);
     }
 
     @Transactional(readOnly = true)
-    @SuppressWarnings("unchecked")
-    public List<Object[]> getDailyRevenue(int days) {
-        String sql = """
-                SELECT
-                    DATE(b.created_at) as booking_date,
-                    COUNT(DISTINCT b.id) as bookings_count,
-                    SUM(b.total_price) as daily_revenue,
-                    COUNT(bs.id) as tickets_sold
-                FROM bookings b
-                JOIN booking_seats bs ON b.id = bs.booking_id
-                WHERE b.status = 'COMPLETED'
-                AND b.created_at >= CURRENT_DATE - INTERVAL '%d days'
-                GROUP BY DATE(b.created_at)
-                ORDER BY booking_date DESC
-                """.formatted(days);
-        return entityManager.createNativeQuery(sql).getResultList();
+    public List<DailyRevenueResponse> getDailyRevenue(int days) {
+        return jdbcTemplate.query(DAILY_REVENUE_SQL, Map.of("days", days), DAILY_REVENUE);
+    }
+
+    private SessionOccupancyResponse toSessionOccupancy(ResultSet rs, int rowNum) throws SQLException {
+        int capacity = rs.getInt("capacity");
+        long bookedSeats = rs.getLong("booked_seats");
+        OffsetDateTime startTime = rs.getObject("start_time", OffsetDateTime.class);
+        return new SessionOccupancyResponse(
+                rs.getLong("session_id"),
+                rs.getString("movie_title"),
+                rs.getString("hall_name"),
+                capacity,
+                bookedSeats,
+                rs.getBigDecimal("occupancy_percent"),
+                pricingEngine.priceFactor(HallType.valueOf(rs.getString("hall_type")),
+                        Duration.between(OffsetDateTime.now(), startTime).toMillis(), bookedSeats, capacity));
     }
 }
@@ -0,0 +1,138 @@
+package org.example.db_project.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Expires PENDING bookings whose seat hold has lapsed in bounded chunks. Each chunk is a
+ * single statement in its own transaction that flips the bookings to EXPIRED, deletes
+ * their seat reservations and records the transitions in the booking outbox, paging by
+ * (created_at, id). Caches learn about the released seats from the relayed transitions.
+ */
+@Service
+@Slf4j
+public class BookingExpiryService {
+    private static final String EXPIRE_CHUNK_SQL = """
+            WITH expired AS (
+                SELECT id FROM bookings
+                WHERE status = 'PENDING'
+                AND created_at < ?
+                AND (created_at, id) > (?, ?)
+                ORDER BY created_at, id
+                LIMIT ?
+                FOR UPDATE SKIP LOCKED
+            ),
+            updated AS (
+                UPDATE bookings b
+                SET status = 'EXPIRED', version = b.version + 1
+                FROM expired
+                WHERE b.id = expired.id
+                RETURNING b.id, b.session_id, b.created_at
+            ),
+            outbox AS (
+                INSERT INTO booking_outbox (booking_id, session_id, from_status, to_status)
+                SELECT u.id, u.session_id, 'PENDING', 'EXPIRED' FROM updated u
+                ORDER BY u.created_at, u.id
+            ),
+            released AS (
+                DELETE FROM session_seat_reservations r
+                USING updated u
+                WHERE r.booking_id = u.id
+            )
+            SELECT u.id, u.created_at
+            FROM updated u
+            ORDER BY u.created_at, u.id
+            """;
+    private static final OffsetDateTime KEYSET_START = OffsetDateTime.of(1970, 1, 1, 0, 0, 0, 0, ZoneOffset.UTC);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final SeatHoldService seatHoldService;
+    private final int chunkSize;
+    private final Counter expiredCounter;
+    private final Timer chunkTimer;
+
+    public BookingExpiryService(JdbcTemplate jdbcTemplate,
+                                TransactionTemplate transactionTemplate,
+                                SeatHoldService seatHoldService,
+                                MeterRegistry meterRegistry,
+                                @Value("${booking.expiry.chunk-size:500}") int chunkSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.seatHoldService = seatHoldService;
+        this.chunkSize = chunkSize;
+        this.expiredCounter = Counter.builder("booking.expiry.expired")
+                .description("Pending bookings expired by the sweep")
+                .register(meterRegistry);
+        this.chunkTimer = Timer.builder("booking.expiry.chunk")
+                .description("Time to expire one chunk of pending bookings")
+                .register(meterRegistry);
+    }
+
+    public ExpiryRun expirePendingBookings() {
+        return expirePendingBookings(seatHoldService.getTtl());
+    }
+
+    public ExpiryRun expirePendingBookings(Duration olderThan) {
+        OffsetDateTime cutoff = OffsetDateTime.now().minus(olderThan);
+        long startedAt = System.nanoTime();
+        int expired = 0;
+        int chunks = 0;
+        Cursor cursor = new Cursor(KEYSET_START, 0L);
+        while (true) {
+            Cursor from = cursor;
+            Chunk chunk = chunkTimer.record(() -> transactionTemplate.execute(status -> expireChunk(cutoff, from)));
+            if (chunk == null || chunk.bookingIds().isEmpty()) {
+                break;
+            }
+            chunks++;
+            expired += chunk.bookingIds().size();
+            expiredCounter.increment(chunk.bookingIds().size());
+            // Only an empty chunk ends the run; under SKIP LOCKED a short one does not mean nothing is left.
+            cursor = chunk.last();
+        }
+        ExpiryRun run = new ExpiryRun(expired, chunks, Duration.ofNanos(System.nanoTime() - startedAt));
+        if (expired > 0) {
+            log.info("Expired {} pending bookings in {} chunks, {} ms ({} bookings/s)",
+                    run.expired(), run.chunks(), run.elapsed().toMillis(), Math.round(run.throughputPerSecond()));
+        }
+        return run;
+    }
+
+    private Chunk expireChunk(OffsetDateTime cutoff, Cursor after) {
+        Set<Long> bookingIds = new HashSet<>();
+        Cursor[] last = {after};
+        jdbcTemplate.query(EXPIRE_CHUNK_SQL, rs -> {
+            long bookingId = rs.getLong(1);
+            bookingIds.add(bookingId);
+            last[0] = new Cursor(rs.getObject(2, OffsetDateTime.class), bookingId);
+        }, cutoff, after.createdAt(), after.id(), chunkSize);
+        seatHoldService.releaseAll(bookingIds);
+        return new Chunk(List.copyOf(bookingIds), last[0]);
+    }
+
+    public record ExpiryRun(int expired, int chunks, Duration elapsed) {
+        public double throughputPerSecond() {
+            return elapsed.isZero() ? 0 : expired * 1_000_000_000.0 / elapsed.toNanos();
+        }
+    }
+
+    private record Cursor(OffsetDateTime createdAt, long id) {
+    }
+
+    private record Chunk(List<Long> bookingIds, Cursor last) {
+    }
+}
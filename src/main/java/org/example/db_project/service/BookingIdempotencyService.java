@@ -0,0 +1,149 @@
+package org.example.db_project.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.example.db_project.config.PrimaryReads;
+import org.example.db_project.domain.repository.BookingRepository;
+import org.example.db_project.dto.request.CreateBookingRequest;
+import org.example.db_project.dto.response.BookingResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.HexFormat;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.stream.Collectors;
+
+/**
+ * Deduplicates booking submissions carrying an {@code Idempotency-Key}. Responses of
+ * recent keys are kept in memory for {@code booking.idempotency.cache-ttl}, and a duplicate
+ * arriving while the first request is still running waits for its result. Keys are also
+ * claimed in {@code booking_idempotency_keys} within the booking transaction, which covers
+ * retries that reach another node or arrive after the in-memory entry has expired. Either
+ * way a replay returns the booking as it is now, read from the primary, not as it was
+ * when the first attempt created it.
+ */
+@Service
+@Slf4j
+public class BookingIdempotencyService {
+    static final int MAX_KEY_LENGTH = 255;
+
+    private final BookingService bookingService;
+    private final BookingRepository bookingRepository;
+    private final PrimaryReads primaryReads;
+    private final Duration cacheTtl;
+    private final Duration retention;
+    private final ConcurrentMap<String, Entry> entries = new ConcurrentHashMap<>();
+    private final Counter replays;
+
+    public BookingIdempotencyService(BookingService bookingService,
+                                     BookingRepository bookingRepository,
+                                     PrimaryReads primaryReads,
+                                     MeterRegistry meterRegistry,
+                                     @Value("${booking.idempotency.cache-ttl:PT10M}") Duration cacheTtl,
+                                     @Value("${booking.idempotency.retention:P1D}") Duration retention) {
+        this.bookingService = bookingService;
+        this.bookingRepository = bookingRepository;
+        this.primaryReads = primaryReads;
+        this.cacheTtl = cacheTtl;
+        this.retention = retention;
+        this.replays = Counter.builder("booking.idempotency.replays").register(meterRegistry);
+        Gauge.builder("booking.idempotency.cache.size", entries, ConcurrentMap::size).register(meterRegistry);
+    }
+
+    public BookingResponse createBooking(String idempotencyKey, CreateBookingRequest request) {
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_KEY_LENGTH) {
+            throw new IllegalStateException("Idempotency key must be 1 to " + MAX_KEY_LENGTH + " characters");
+        }
+        String requestHash = hash(request);
+        Entry entry = new Entry(requestHash);
+        Entry existing;
+        while ((existing = entries.putIfAbsent(idempotencyKey, entry)) != null && existing.isExpired()) {
+            entries.remove(idempotencyKey, existing);
+        }
+        if (existing != null) {
+            if (!existing.requestHash.equals(requestHash)) {
+                throw new IllegalStateException(
+                        "Idempotency key " + idempotencyKey + " was already used for a different booking request");
+            }
+            replays.increment();
+            Long bookingId = await(existing.response).getId();
+            return primaryReads.load(() -> bookingService.getBookingById(bookingId));
+        }
+        try {
+            BookingResponse response = bookingService.createBooking(request, idempotencyKey, requestHash);
+            entry.expiresAt = System.nanoTime() + cacheTtl.toNanos();
+            entry.response.complete(response);
+            return response;
+        } catch (RuntimeException e) {
+            // Waiting duplicates fail with the same error; later retries start over.
+            entries.remove(idempotencyKey, entry);
+            entry.response.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    public void evictExpired() {
+        entries.values().removeIf(Entry::isExpired);
+    }
+
+    @Transactional
+    public int purgeStoredKeys() {
+        int deleted = bookingRepository.deleteIdempotencyKeysCreatedBefore(OffsetDateTime.now().minus(retention));
+        if (deleted > 0) {
+            log.debug("Deleted {} expired booking idempotency keys", deleted);
+        }
+        return deleted;
+    }
+
+    static String hash(CreateBookingRequest request) {
+        String canonical = request.getUserId() + ":" + request.getSessionId() + ":" + request.getSeatIds().stream()
+                .sorted()
+                .map(String::valueOf)
+                .collect(Collectors.joining(","));
+        if (request.getExpectedTotalPrice() != null) {
+            canonical += ":" + request.getExpectedTotalPrice().stripTrailingZeros().toPlainString();
+        }
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256")
+                    .digest(canonical.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static BookingResponse await(CompletableFuture<BookingResponse> response) {
+        try {
+            return response.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private static final class Entry {
+        final String requestHash;
+        final CompletableFuture<BookingResponse> response = new CompletableFuture<>();
+        volatile long expiresAt = Long.MAX_VALUE;
+
+        Entry(String requestHash) {
+            this.requestHash = requestHash;
+        }
+
+        boolean isExpired() {
+            return expiresAt != Long.MAX_VALUE && System.nanoTime() - expiresAt > 0;
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package org.example.db_project.service;
+
+import lombok.RequiredArgsConstructor;
+import org.example.db_project.domain.enums.BookingStatus;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Types;
+
+/**
+ * Records booking state changes in {@code booking_outbox} within the transaction that
+ * makes them, so a change is relayed by {@link BookingOutboxRelay} if and only if it commits.
+ */
+@Component
+@RequiredArgsConstructor
+public class BookingOutbox {
+    static final String APPEND_SQL = """
+            INSERT INTO booking_outbox (booking_id, session_id, from_status, to_status)
+            SELECT b.id, b.session_id, :fromStatus, :toStatus
+            FROM bookings b
+            WHERE b.id = :bookingId
+            """;
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void append(Long bookingId, BookingStatus fromStatus, BookingStatus toStatus) {
+        jdbcTemplate.update(APPEND_SQL, new MapSqlParameterSource()
+                .addValue("bookingId", bookingId)
+                .addValue("fromStatus", fromStatus != null ? fromStatus.name() : null, Types.VARCHAR)
+                .addValue("toStatus", toStatus.name(), Types.VARCHAR));
+    }
+}
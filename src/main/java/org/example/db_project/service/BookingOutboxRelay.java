@@ -0,0 +1,102 @@
+package org.example.db_project.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.example.db_project.domain.enums.BookingStatus;
+import org.example.db_project.domain.event.BookingStatusChangedEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Drains {@code booking_outbox} in batches and publishes each row as a
+ * {@link BookingStatusChangedEvent}. A batch is locked with {@code FOR UPDATE SKIP LOCKED},
+ * published and deleted in one transaction, so nodes relaying concurrently take disjoint
+ * batches and a batch whose listener fails is delivered again. Only the oldest pending
+ * row of each booking is eligible, which keeps a booking's events in order across nodes.
+ * Listeners run inside the relay transaction and must tolerate redelivery.
+ */
+@Service
+@Slf4j
+public class BookingOutboxRelay {
+    static final String CLAIM_BATCH_SQL = """
+            SELECT o.id, o.booking_id, o.session_id, o.from_status, o.to_status, o.created_at
+            FROM booking_outbox o
+            WHERE NOT EXISTS (
+                SELECT 1 FROM booking_outbox earlier
+                WHERE earlier.booking_id = o.booking_id
+                AND earlier.id < o.id
+            )
+            ORDER BY o.id
+            LIMIT :batchSize
+            FOR UPDATE SKIP LOCKED
+            """;
+    static final String DELETE_BATCH_SQL = "DELETE FROM booking_outbox WHERE id IN (:ids)";
+    private static final RowMapper<BookingStatusChangedEvent> EVENT = (rs, rowNum) -> {
+        String fromStatus = rs.getString("from_status");
+        return new BookingStatusChangedEvent(
+                rs.getLong("id"),
+                rs.getLong("booking_id"),
+                rs.getLong("session_id"),
+                fromStatus != null ? BookingStatus.valueOf(fromStatus) : null,
+                BookingStatus.valueOf(rs.getString("to_status")),
+                rs.getObject("created_at", OffsetDateTime.class));
+    };
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int batchSize;
+    private final Counter relayed;
+
+    public BookingOutboxRelay(NamedParameterJdbcTemplate jdbcTemplate,
+                              TransactionTemplate transactionTemplate,
+                              ApplicationEventPublisher eventPublisher,
+                              MeterRegistry meterRegistry,
+                              @Value("${booking.outbox.batch-size:200}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.eventPublisher = eventPublisher;
+        this.batchSize = batchSize;
+        this.relayed = Counter.builder("booking.outbox.relayed")
+                .description("Booking events relayed from the outbox")
+                .register(meterRegistry);
+    }
+
+    public int relay() {
+        int total = 0;
+        while (true) {
+            Integer count = transactionTemplate.execute(status -> relayBatch());
+            if (count == null || count == 0) {
+                break;
+            }
+            total += count;
+        }
+        if (total > 0) {
+            log.debug("Relayed {} booking events", total);
+        }
+        return total;
+    }
+
+    private int relayBatch() {
+        List<BookingStatusChangedEvent> events = jdbcTemplate.query(
+                CLAIM_BATCH_SQL, Map.of("batchSize", batchSize), EVENT);
+        if (events.isEmpty()) {
+            return 0;
+        }
+        events.forEach(eventPublisher::publishEvent);
+        jdbcTemplate.update(DELETE_BATCH_SQL, Map.of("ids", events.stream()
+                .map(BookingStatusChangedEvent::outboxId)
+                .toList()));
+        relayed.increment(events.size());
+        return events.size();
+    }
+}
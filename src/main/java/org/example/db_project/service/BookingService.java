@@ -1,38 +1,75 @@
 package org.example.db_project.service;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.example.db_project.domain.entity.*;
 import org.example.db_project.domain.enums.BookingStatus;
+import org.example.db_project.domain.enums.SeatLockingMode;
+import org.example.db_project.domain.event.BookingStatusChangedEvent;
+import org.example.db_project.domain.event.SeatAvailabilityChangedEvent;
+import org.example.db_project.domain.event.SeatHoldExpiredEvent;
 import org.example.db_project.domain.repository.*;
 import org.example.db_project.dto.request.CreateBookingRequest;
 import org.example.db_project.dto.request.UpdateBookingStatusRequest;
 import org.example.db_project.dto.response.*;
 import org.example.db_project.exception.*;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageRequest;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.time.OffsetDateTime;
+import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class BookingService {
+    private static final int MAX_HISTORY_PAGE_SIZE = 100;
+
     private final BookingRepository bookingRepository;
     private final BookingSeatRepository bookingSeatRepository;
     private final SessionRepository sessionRepository;
     private final UserRepository userRepository;
     private final SeatRepository seatRepository;
     private final SeatService seatService;
-    private final HallService hallService;
+    private final HallLayoutCache hallLayoutCache;
+    private final SeatHoldService seatHoldService;
+    private final BookingOutbox bookingOutbox;
+    private final ApplicationEventPublisher eventPublisher;
+    private final MeterRegistry meterRegistry;
+    @Value("${booking.seat-locking-mode:RESERVATION}")
+    private SeatLockingMode seatLockingMode;
 
     @Transactional
     public BookingResponse createBooking(CreateBookingRequest request) {
+        return createBooking(request, null, null);
+    }
+
+    /**
+     * Creates the booking under an idempotency key. The key is claimed before any seat is
+     * locked; if it was already claimed by a committed request, the booking created by that
+     * request is returned instead. A concurrent claim on another node blocks on the key's
+     * primary key until that transaction ends, so duplicates never race for the seats.
+     */
+    @Transactional
+    public BookingResponse createBooking(CreateBookingRequest request, String idempotencyKey, String requestHash) {
+        if (idempotencyKey != null && bookingRepository.claimIdempotencyKey(idempotencyKey, requestHash) == 0) {
+            return replayBooking(idempotencyKey, requestHash);
+        }
         log.info("Creating booking for user {} on session {} with {} seats",
                 request.getUserId(), request.getSessionId(), request.getSeatIds().size());
         User user = userRepository.findById(request.getUserId())
@@ -42,49 +79,61 @@ public class BookingService {
         if (!session.isAvailableForBooking()) {
             throw new SessionNotAvailableException(session.getId());
         }
-        List<Seat> seats = seatRepository.findByIdsWithLock(request.getSeatIds());
-        if (seats.size() != request.getSeatIds().size()) {
-            throw new ResourceNotFoundException("Some seats not found");
-        }
-        Long hallId = session.getHall().getId();
-        for (Seat seat : seats) {
-            if (!seat.getHall().getId().equals(hallId)) {
-                throw new IllegalStateException(
-                        "Seat " + seat.getId() + " does not belong to hall " + hallId);
+        PricingEngine.PriceQuote prices = seatService.quotePrices(session);
+        HallLayoutCache.HallLayout layout = prices.prices().getLayout();
+        validateSeats(layout, request.getSeatIds());
+        List<Seat> seats;
+        if (seatLockingMode == SeatLockingMode.ROW_LOCK) {
+            seats = seatLockWait().record(() -> seatRepository.findByIdsWithLock(request.getSeatIds()));
+            if (seats.size() != request.getSeatIds().size()) {
+                throw new ResourceNotFoundException("Some seats not found");
             }
+        } else {
+            seats = request.getSeatIds().stream()
+                    .map(seatRepository::getReferenceById)
+                    .toList();
         }
-        List<Long> alreadyBookedSeatIds = new ArrayList<>();
-        for (Seat seat : seats) {
-            if (bookingSeatRepository.isSeatBookedForSession(seat.getId(), session.getId())) {
-                alreadyBookedSeatIds.add(seat.getId());
+        if (seatLockingMode == SeatLockingMode.ROW_LOCK) {
+            List<Long> alreadyBookedSeatIds = bookingSeatRepository.findBookedSeatIdsForSession(
+                    session.getId(), request.getSeatIds());
+            if (!alreadyBookedSeatIds.isEmpty()) {
+                throw new SeatAlreadyBookedException(alreadyBookedSeatIds);
             }
         }
-        if (!alreadyBookedSeatIds.isEmpty()) {
-            throw new SeatAlreadyBookedException(alreadyBookedSeatIds);
-        }
-        BigDecimal totalPrice = BigDecimal.ZERO;
+        long totalPrice = 0;
         List<BookingSeat> bookingSeats = new ArrayList<>();
         for (Seat seat : seats) {
-            BigDecimal seatPrice = session.getBasePrice()
-                    .multiply(seat.getPriceMultiplier());
-            totalPrice = totalPrice.add(seatPrice);
+            long seatPrice = prices.priceAt(layout.ordinalOf(seat.getId()));
+            totalPrice += seatPrice;
             BookingSeat bookingSeat = BookingSeat.builder()
                     .seat(seat)
-                    .price(seatPrice)
+                    .price(SessionPriceTables.PriceTable.toAmount(seatPrice))
                     .build();
             bookingSeats.add(bookingSeat);
         }
+        BigDecimal totalAmount = SessionPriceTables.PriceTable.toAmount(totalPrice);
+        if (request.getExpectedTotalPrice() != null
+                && request.getExpectedTotalPrice().compareTo(totalAmount) != 0) {
+            throw new PriceChangedException(request.getExpectedTotalPrice(), totalAmount);
+        }
         Booking booking = Booking.builder()
                 .user(user)
                 .session(session)
-                .totalPrice(totalPrice)
+                .totalPrice(totalAmount)
                 .status(BookingStatus.PENDING)
                 .build();
         for (BookingSeat bookingSeat : bookingSeats) {
             booking.addBookingSeat(bookingSeat);
         }
         booking = bookingRepository.save(booking);
-        log.info("Booking created with id: {}, total price: {}", booking.getId(), totalPrice);
+        reserveSeats(session.getId(), booking.getId(), request.getSeatIds());
+        if (idempotencyKey != null) {
+            bookingRepository.attachIdempotencyKey(idempotencyKey, booking.getId());
+        }
+        bookingOutbox.append(booking.getId(), null, BookingStatus.PENDING);
+        seatHoldService.place(booking.getId(), booking.getCreatedAt());
+        eventPublisher.publishEvent(SeatAvailabilityChangedEvent.booked(session.getId(), request.getSeatIds()));
+        log.info("Booking created with id: {}, total price: {}", booking.getId(), booking.getTotalPrice());
         return toResponse(booking);
     }
 
@@ -100,6 +149,13 @@ public class BookingService {
         }
         booking.transitionTo(newStatus);
         booking = bookingRepository.save(booking);
+        bookingOutbox.append(bookingId, currentStatus, newStatus);
+        if (currentStatus == BookingStatus.PENDING) {
+            seatHoldService.release(bookingId);
+        }
+        if (newStatus == BookingStatus.CANCELLED || newStatus == BookingStatus.EXPIRED) {
+            releaseSeats(booking);
+        }
         log.info("Booking {} status updated from {} to {}", bookingId, currentStatus, newStatus);
         return toResponse(booking);
     }
@@ -117,11 +173,15 @@ public class BookingService {
         log.info("Cancelling booking: {}", bookingId);
         Booking booking = bookingRepository.findByIdWithOptimisticLock(bookingId)
                 .orElseThrow(() -> new ResourceNotFoundException("Booking", bookingId));
+        BookingStatus currentStatus = booking.getStatus();
         if (!booking.canTransitionTo(BookingStatus.CANCELLED)) {
-            throw new InvalidBookingStateException(booking.getStatus(), BookingStatus.CANCELLED);
+            throw new InvalidBookingStateException(currentStatus, BookingStatus.CANCELLED);
         }
         booking.transitionTo(BookingStatus.CANCELLED);
         bookingRepository.save(booking);
+        bookingOutbox.append(bookingId, currentStatus, BookingStatus.CANCELLED);
+        seatHoldService.release(bookingId);
+        releaseSeats(booking);
         log.info("Booking cancelled: {}", bookingId);
     }
 
@@ -132,66 +192,216 @@ public class BookingService {
         return toResponse(booking);
     }
 
+    /**
+     * Returns the user's bookings newest first, {@code size} at a time. The cursor of the
+     * next page is the (created_at, id) of the last booking returned, so each page is a
+     * range scan of the user's index entries no matter how deep it is.
+     */
     @Transactional(readOnly = true)
-    public Page<BookingResponse> getUserBookings(Long userId, int page, int size) {
-        return bookingRepository.findUserBookingsWithDetails(userId, PageRequest.of(page, size))
-                .map(this::toResponse);
+    public BookingHistoryResponse getUserBookingHistory(Long userId, String cursor, int size) {
+        if (size < 1 || size > MAX_HISTORY_PAGE_SIZE) {
+            throw new IllegalStateException("Page size must be between 1 and " + MAX_HISTORY_PAGE_SIZE);
+        }
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new ResourceNotFoundException("User", userId));
+        Limit limit = Limit.of(size + 1);
+        List<BookingRepository.BookingHistoryView> rows;
+        if (cursor == null) {
+            rows = bookingRepository.findUserBookingHistory(userId, limit);
+        } else {
+            HistoryCursor after = HistoryCursor.decode(cursor);
+            rows = bookingRepository.findUserBookingHistoryBefore(userId, after.createdAt(), after.id(), limit);
+        }
+        boolean hasMore = rows.size() > size;
+        List<BookingRepository.BookingHistoryView> page = hasMore ? rows.subList(0, size) : rows;
+        if (page.isEmpty()) {
+            return new BookingHistoryResponse(List.of(), null);
+        }
+        Map<Long, Session> sessions = sessionRepository.findAllByIdWithDetails(page.stream()
+                        .map(BookingRepository.BookingHistoryView::getSessionId)
+                        .collect(Collectors.toSet()))
+                .stream()
+                .collect(Collectors.toMap(Session::getId, session -> session));
+        Map<Long, Long> hallIds = page.stream()
+                .collect(Collectors.toMap(BookingRepository.BookingHistoryView::getId,
+                        row -> sessions.get(row.getSessionId()).getHall().getId()));
+        Map<Long, List<BookingSeatResponse>> seats = bookingSeatRepository.findByBookingIds(hallIds.keySet())
+                .stream()
+                .collect(Collectors.groupingBy(bs -> bs.getBooking().getId(),
+                        Collectors.mapping(bs -> toSeatResponse(bs,
+                                        hallLayoutCache.get(hallIds.get(bs.getBooking().getId()))),
+                                Collectors.toList())));
+        UserResponse userResponse = toUserResponse(user);
+        List<BookingResponse> bookings = page.stream()
+                .map(row -> {
+                    List<BookingSeatResponse> bookingSeats = seats.getOrDefault(row.getId(), List.of());
+                    return BookingResponse.builder()
+                            .id(row.getId())
+                            .user(userResponse)
+                            .session(toSessionResponse(sessions.get(row.getSessionId())))
+                            .totalPrice(row.getTotalPrice())
+                            .status(row.getStatus())
+                            .seats(bookingSeats)
+                            .createdAt(row.getCreatedAt())
+                            .ticketCount(bookingSeats.size())
+                            .build();
+                })
+                .toList();
+        String nextCursor = hasMore ? HistoryCursor.of(page.getLast()).encode() : null;
+        return new BookingHistoryResponse(bookings, nextCursor);
     }
 
+    @EventListener
     @Transactional
-    public int expirePendingBookings(int minutesOld) {
-        OffsetDateTime expirationTime = OffsetDateTime.now().minusMinutes(minutesOld);
-        List<Booking> expiredBookings = bookingRepository.findExpiredPendingBookings(expirationTime);
-        if (expiredBookings.isEmpty()) {
-            return 0;
-        }
-        List<Long> expiredIds = expiredBookings.stream()
-                .map(Booking::getId)
+    public void onSeatHoldExpired(SeatHoldExpiredEvent event) {
+        if (bookingRepository.expireIfPending(event.bookingId()) == 0) {
+            return;
+        }
+        bookingOutbox.append(event.bookingId(), BookingStatus.PENDING, BookingStatus.EXPIRED);
+        bookingSeatRepository.releaseReservations(List.of(event.bookingId()));
+        seatHoldService.release(event.bookingId());
+        log.info("Seat hold lapsed, booking expired: {}", event.bookingId());
+    }
+
+    /**
+     * Announces the seats of a cancelled or expired booking once the outbox relay delivers
+     * the transition, so cache updates do not run in the transaction that released them.
+     */
+    @EventListener
+    public void onBookingStatusChanged(BookingStatusChangedEvent event) {
+        if (event.toStatus() != BookingStatus.CANCELLED && event.toStatus() != BookingStatus.EXPIRED) {
+            return;
+        }
+        List<Long> seatIds = bookingSeatRepository.findSessionSeatsByBookingIds(List.of(event.bookingId()))
+                .stream()
+                .map(BookingSeatRepository.SessionSeatView::getSeatId)
                 .toList();
-        int count = bookingRepository.expireBookings(expiredIds);
-        log.info("Expired {} pending bookings older than {} minutes", count, minutesOld);
-        return count;
+        if (!seatIds.isEmpty()) {
+            eventPublisher.publishEvent(SeatAvailabilityChangedEvent.released(event.sessionId(), seatIds));
+        }
+    }
+
+    private void validateSeats(HallLayoutCache.HallLayout layout, List<Long> seatIds) {
+        Set<Long> distinct = new HashSet<>();
+        for (Long seatId : seatIds) {
+            if (!layout.contains(seatId)) {
+                if (!hallLayoutCache.containsSeat(seatId)) {
+                    throw new ResourceNotFoundException("Some seats not found");
+                }
+                throw new IllegalStateException(
+                        "Seat " + seatId + " does not belong to hall " + layout.getHallId());
+            }
+            if (!distinct.add(seatId)) {
+                throw new IllegalStateException("Seat " + seatId + " is requested more than once");
+            }
+        }
+    }
+
+    private BookingResponse replayBooking(String idempotencyKey, String requestHash) {
+        BookingRepository.IdempotencyKeyView stored = bookingRepository.findIdempotencyKey(idempotencyKey)
+                .filter(key -> key.getBookingId() != null)
+                .orElseThrow(() -> new IllegalStateException(
+                        "Idempotency key " + idempotencyKey + " is held by a request that did not complete"));
+        if (!stored.getRequestHash().equals(requestHash)) {
+            throw new IllegalStateException(
+                    "Idempotency key " + idempotencyKey + " was already used for a different booking request");
+        }
+        log.info("Replaying booking {} for idempotency key {}", stored.getBookingId(), idempotencyKey);
+        return getBookingById(stored.getBookingId());
+    }
+
+    private void reserveSeats(Long sessionId, Long bookingId, List<Long> seatIds) {
+        // In ROW_LOCK mode the wait was already taken on the seat rows; the insert is not a lock wait there.
+        int reserved = seatLockingMode == SeatLockingMode.RESERVATION
+                ? seatLockWait().record(() -> bookingSeatRepository.reserveSeats(sessionId, bookingId, seatIds))
+                : bookingSeatRepository.reserveSeats(sessionId, bookingId, seatIds);
+        if (reserved != seatIds.size()) {
+            throw new SeatAlreadyBookedException(
+                    bookingSeatRepository.findSeatIdsReservedByOtherBookings(sessionId, bookingId, seatIds));
+        }
+    }
+
+    private Timer seatLockWait() {
+        return meterRegistry.timer("booking.seat.lock.wait", "mode", seatLockingMode.name());
+    }
+
+    private void releaseSeats(Booking booking) {
+        bookingSeatRepository.releaseReservations(List.of(booking.getId()));
     }
 
     private BookingResponse toResponse(Booking booking) {
-        Session session = booking.getSession();
-        UserResponse userResponse = UserResponse.builder()
-                .id(booking.getUser().getId())
-                .email(booking.getUser().getEmail())
-                .firstName(booking.getUser().getFirstName())
-                .lastName(booking.getUser().getLastName())
-                .fullName(booking.getUser().getFullName())
+        HallLayoutCache.HallLayout layout = hallLayoutCache.get(booking.getSession().getHall().getId());
+        return BookingResponse.builder()
+                .id(booking.getId())
+                .user(toUserResponse(booking.getUser()))
+                .session(toSessionResponse(booking.getSession()))
+                .totalPrice(booking.getTotalPrice())
+                .status(booking.getStatus())
+                .seats(booking.getBookingSeats().stream()
+                        .map(bookingSeat -> toSeatResponse(bookingSeat, layout))
+                        .toList())
+                .createdAt(booking.getCreatedAt())
+                .ticketCount(booking.getTicketCount())
+                .build();
+    }
+
+    private UserResponse toUserResponse(User user) {
+        return UserResponse.builder()
+                .id(user.getId())
+                .email(user.getEmail())
+                .firstName(user.getFirstName())
+                .lastName(user.getLastName())
+                .fullName(user.getFullName())
                 .build();
+    }
+
+    private SessionResponse toSessionResponse(Session session) {
         MovieResponse movieResponse = MovieResponse.builder()
                 .id(session.getMovie().getId())
                 .title(session.getMovie().getTitle())
                 .durationMinutes(session.getMovie().getDurationMinutes())
                 .build();
-        SessionResponse sessionResponse = SessionResponse.builder()
+        return SessionResponse.builder()
                 .id(session.getId())
                 .movie(movieResponse)
-                .hall(hallService.toResponse(session.getHall()))
+                .hall(hallLayoutCache.get(session.getHall().getId()).toHallResponse())
                 .startTime(session.getStartTime())
                 .endTime(session.getEndTime())
                 .basePrice(session.getBasePrice())
                 .status(session.getStatus())
                 .build();
-        List<BookingSeatResponse> seatResponses = booking.getBookingSeats().stream()
-                .map(bs -> BookingSeatResponse.builder()
-                        .id(bs.getId())
-                        .seat(seatService.toResponse(bs.getSeat()))
-                        .price(bs.getPrice())
-                        .build())
-                .toList();
-        return BookingResponse.builder()
-                .id(booking.getId())
-                .user(userResponse)
-                .session(sessionResponse)
-                .totalPrice(booking.getTotalPrice())
-                .status(booking.getStatus())
-                .seats(seatResponses)
-                .createdAt(booking.getCreatedAt())
-                .ticketCount(booking.getTicketCount())
+    }
+
+    private BookingSeatResponse toSeatResponse(BookingSeat bookingSeat, HallLayoutCache.HallLayout layout) {
+        int ordinal = layout.ordinalOf(bookingSeat.getSeat().getId());
+        return BookingSeatResponse.builder()
+                .id(bookingSeat.getId())
+                .seat(ordinal >= 0
+                        ? layout.toSeatResponse(ordinal, true)
+                        : seatService.toResponse(bookingSeat.getSeat()))
+                .price(bookingSeat.getPrice())
                 .build();
     }
+
+    private record HistoryCursor(OffsetDateTime createdAt, Long id) {
+        static HistoryCursor of(BookingRepository.BookingHistoryView row) {
+            return new HistoryCursor(row.getCreatedAt(), row.getId());
+        }
+
+        static HistoryCursor decode(String cursor) {
+            try {
+                String value = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+                int separator = value.lastIndexOf(',');
+                return new HistoryCursor(OffsetDateTime.parse(value.substring(0, separator)),
+                        Long.valueOf(value.substring(separator + 1)));
+            } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException e) {
+                throw new IllegalStateException("Invalid booking history cursor: " + cursor);
+            }
+        }
+
+        String encode() {
+            return Base64.getUrlEncoder().withoutPadding()
+                    .encodeToString((createdAt + "," + id).getBytes(StandardCharsets.UTF_8));
+        }
+    }
 }
@@ -0,0 +1,213 @@
+package org.example.db_project.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.example.db_project.domain.enums.ExportFormat;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.*;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.util.Map;
+
+/**
+ * Streams report rows straight from a JDBC cursor to the response as CSV or NDJSON.
+ * Rows are fetched {@code export.fetch-size} at a time inside a read-only transaction
+ * (PostgreSQL only uses a cursor when autocommit is off), so memory stays constant.
+ */
+@Service
+@Slf4j
+public class ExportService {
+    private static final String BOOKINGS_SQL = """
+            SELECT
+                b.id as booking_id,
+                b.created_at,
+                b.status,
+                b.total_price,
+                COUNT(bs.id) as tickets,
+                u.email as user_email,
+                s.id as session_id,
+                s.start_time as session_start,
+                m.title as movie_title,
+                h.name as hall_name
+            FROM bookings b
+            JOIN users u ON b.user_id = u.id
+            JOIN sessions s ON b.session_id = s.id
+            JOIN movies m ON s.movie_id = m.id
+            JOIN halls h ON s.hall_id = h.id
+            LEFT JOIN booking_seats bs ON b.id = bs.booking_id
+            WHERE b.created_at >= CAST(:from AS date)
+            AND b.created_at < CAST(:to AS date) + 1
+            GROUP BY b.id, u.email, s.id, m.title, h.name
+            ORDER BY b.created_at, b.id
+            """;
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ObjectMapper objectMapper;
+
+    public ExportService(JdbcTemplate jdbcTemplate,
+                         PlatformTransactionManager transactionManager,
+                         ObjectMapper objectMapper,
+                         @Value("${export.fetch-size:1000}") int fetchSize) {
+        JdbcTemplate streamingTemplate = new JdbcTemplate(jdbcTemplate.getDataSource());
+        streamingTemplate.setFetchSize(fetchSize);
+        this.jdbcTemplate = new NamedParameterJdbcTemplate(streamingTemplate);
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.objectMapper = objectMapper;
+    }
+
+    public void exportDailyRevenue(int days, ExportFormat format, OutputStream out) throws IOException {
+        export(AnalyticsService.DAILY_REVENUE_SQL, Map.of("days", days), format, out);
+    }
+
+    public void exportSessionOccupancy(ExportFormat format, OutputStream out) throws IOException {
+        export(AnalyticsService.SESSION_OCCUPANCY_SQL, Map.of(), format, out);
+    }
+
+    public void exportBookings(LocalDate from, LocalDate to, ExportFormat format, OutputStream out) throws IOException {
+        log.info("Exporting bookings created from {} to {} as {}", from, to, format);
+        export(BOOKINGS_SQL, Map.of("from", from, "to", to), format, out);
+    }
+
+    private void export(String sql, Map<String, ?> params, ExportFormat format, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        RowWriter rowWriter = format == ExportFormat.CSV
+                ? new CsvRowWriter(writer)
+                : new NdjsonRowWriter(writer, ndjsonGenerator(writer));
+        ResultSetExtractor<Void> extractor = rs -> {
+            Column[] columns = Column.of(rs.getMetaData());
+            try {
+                rowWriter.header(columns);
+                while (rs.next()) {
+                    rowWriter.row(columns, rs);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return null;
+        };
+        try {
+            readOnlyTransaction.executeWithoutResult(status -> jdbcTemplate.query(sql, params, extractor));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        writer.flush();
+    }
+
+    private JsonGenerator ndjsonGenerator(Writer writer) throws IOException {
+        JsonGenerator generator = objectMapper.getFactory().createGenerator(writer);
+        generator.disable(JsonGenerator.Feature.FLUSH_PASSED_TO_STREAM);
+        generator.setRootValueSeparator(null);
+        return generator;
+    }
+
+    private record Column(String label, int type, String typeName) {
+        static Column[] of(ResultSetMetaData metaData) throws SQLException {
+            Column[] columns = new Column[metaData.getColumnCount()];
+            for (int i = 0; i < columns.length; i++) {
+                columns[i] = new Column(metaData.getColumnLabel(i + 1), metaData.getColumnType(i + 1),
+                        metaData.getColumnTypeName(i + 1));
+            }
+            return columns;
+        }
+
+        Object read(ResultSet rs, int index) throws SQLException {
+            Object value = switch (type) {
+                case Types.NUMERIC, Types.DECIMAL, Types.DOUBLE, Types.REAL -> rs.getBigDecimal(index);
+                case Types.BIGINT, Types.INTEGER, Types.SMALLINT -> rs.getLong(index);
+                case Types.DATE -> rs.getObject(index, LocalDate.class);
+                case Types.TIMESTAMP, Types.TIMESTAMP_WITH_TIMEZONE -> "timestamptz".equals(typeName)
+                        ? rs.getObject(index, OffsetDateTime.class)
+                        : rs.getObject(index, LocalDateTime.class);
+                default -> rs.getString(index);
+            };
+            return rs.wasNull() ? null : value;
+        }
+    }
+
+    private interface RowWriter {
+        void header(Column[] columns) throws IOException;
+
+        void row(Column[] columns, ResultSet rs) throws IOException, SQLException;
+    }
+
+    private record CsvRowWriter(Writer writer) implements RowWriter {
+        @Override
+        public void header(Column[] columns) throws IOException {
+            for (int i = 0; i < columns.length; i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                writeField(columns[i].label());
+            }
+            writer.write('\n');
+        }
+
+        @Override
+        public void row(Column[] columns, ResultSet rs) throws IOException, SQLException {
+            for (int i = 0; i < columns.length; i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                Object value = columns[i].read(rs, i + 1);
+                if (value != null) {
+                    writeField(value instanceof BigDecimal decimal ? decimal.toPlainString() : value.toString());
+                }
+            }
+            writer.write('\n');
+        }
+
+        private void writeField(String value) throws IOException {
+            if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+                writer.write(value);
+                return;
+            }
+            writer.write('"');
+            writer.write(value.replace("\"", "\"\""));
+            writer.write('"');
+        }
+    }
+
+    private record NdjsonRowWriter(Writer writer, JsonGenerator generator) implements RowWriter {
+        @Override
+        public void header(Column[] columns) {
+        }
+
+        @Override
+        public void row(Column[] columns, ResultSet rs) throws IOException, SQLException {
+            generator.writeStartObject();
+            for (int i = 0; i < columns.length; i++) {
+                generator.writeFieldName(columns[i].label());
+                Object value = columns[i].read(rs, i + 1);
+                if (value == null) {
+                    generator.writeNull();
+                } else if (value instanceof BigDecimal decimal) {
+                    generator.writeNumber(decimal);
+                } else if (value instanceof Long number) {
+                    generator.writeNumber(number);
+                } else {
+                    generator.writeString(value.toString());
+                }
+            }
+            generator.writeEndObject();
+            generator.flush();
+            writer.write('\n');
+        }
+    }
+}
@@ -0,0 +1,231 @@
+package org.example.db_project.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.example.db_project.config.PrimaryReads;
+import org.example.db_project.domain.enums.HallType;
+import org.example.db_project.domain.enums.SessionStatus;
+import org.example.db_project.domain.event.CachesStaleEvent;
+import org.example.db_project.domain.event.HallLayoutsChangedEvent;
+import org.example.db_project.domain.event.SessionChangedEvent;
+import org.example.db_project.domain.event.SessionStatusesUpdatedEvent;
+import org.example.db_project.domain.repository.SessionRepository;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+
+/**
+ * Sessions of every hall that are neither cancelled nor over, held as one {@link IntervalTree}
+ * per hall so that "is this hall free" and "where is the next gap" are answered in O(log n)
+ * without touching the database. Loaded at startup and kept current from committed
+ * {@link SessionChangedEvent}s of every instance: new sessions are added, cancelled and completed ones removed,
+ * and the status sweep drops any that ended unnoticed. History is not kept, so windows that
+ * start before the index's horizon (the last load or sweep) are answered from the database.
+ * Intervals are half-open, so a hall is free from the moment its previous session ends.
+ */
+@Component
+@Slf4j
+public class HallAvailabilityIndex {
+    private final SessionRepository sessionRepository;
+    private final HallLayoutCache hallLayoutCache;
+    private final PrimaryReads primaryReads;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private volatile Map<Long, IntervalTree> schedules;
+    // every session that ends after this time is indexed
+    private volatile long horizon;
+
+    public HallAvailabilityIndex(SessionRepository sessionRepository,
+                                 HallLayoutCache hallLayoutCache,
+                                 PrimaryReads primaryReads,
+                                 MeterRegistry meterRegistry) {
+        this.sessionRepository = sessionRepository;
+        this.hallLayoutCache = hallLayoutCache;
+        this.primaryReads = primaryReads;
+        Gauge.builder("hall.availability.sessions", this, HallAvailabilityIndex::size).register(meterRegistry);
+    }
+
+    /** Halls of the given type, or of any type if null, with no session overlapping the window. */
+    public List<HallLayoutCache.HallLayout> findAvailableHalls(OffsetDateTime startTime, OffsetDateTime endTime,
+                                                               HallType hallType) {
+        if (!endTime.isAfter(startTime)) {
+            throw new IllegalStateException("End time must be after start time");
+        }
+        long start = toMillis(startTime);
+        long end = toMillis(endTime);
+        warmUp();
+        if (start < horizon) {
+            return findAvailableHallsInDatabase(startTime, endTime, hallType);
+        }
+        List<HallLayoutCache.HallLayout> available = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            for (HallLayoutCache.HallLayout hall : hallLayoutCache.getAll()) {
+                if (hallType != null && hall.getHallType() != hallType) {
+                    continue;
+                }
+                IntervalTree schedule = schedules.get(hall.getHallId());
+                if (schedule == null || !schedule.overlaps(start, end)) {
+                    available.add(hall);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return available;
+    }
+
+    private List<HallLayoutCache.HallLayout> findAvailableHallsInDatabase(OffsetDateTime startTime,
+                                                                         OffsetDateTime endTime,
+                                                                         HallType hallType) {
+        List<HallLayoutCache.HallLayout> halls = hallLayoutCache.getAll().stream()
+                .filter(hall -> hallType == null || hall.getHallType() == hallType)
+                .toList();
+        if (halls.isEmpty()) {
+            return halls;
+        }
+        Set<Long> busy = sessionRepository.findSessionSlotsInHalls(
+                        halls.stream().map(HallLayoutCache.HallLayout::getHallId).toList(), startTime, endTime)
+                .stream()
+                .map(SessionRepository.SessionSlotView::getHallId)
+                .collect(Collectors.toSet());
+        return halls.stream().filter(hall -> !busy.contains(hall.getHallId())).toList();
+    }
+
+    /** Start times of the first {@code count} back-to-back free slots of {@code length} in a hall. */
+    public List<OffsetDateTime> findFreeSlots(Long hallId, OffsetDateTime from, Duration length, int count) {
+        hallLayoutCache.get(hallId);
+        long lengthMillis = length.toMillis();
+        List<OffsetDateTime> slots = new ArrayList<>(count);
+        warmUp();
+        lock.readLock().lock();
+        try {
+            IntervalTree schedule = schedules.get(hallId);
+            long candidate = toMillis(from);
+            for (int i = 0; i < count; i++) {
+                long slot = schedule == null ? candidate : schedule.nextGap(candidate, lengthMillis);
+                slots.add(OffsetDateTime.ofInstant(Instant.ofEpochMilli(slot), from.getOffset()));
+                candidate = slot + lengthMillis;
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return slots;
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return schedules == null ? 0 : schedules.values().stream().mapToInt(IntervalTree::size).sum();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        if (schedules != null) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            if (schedules == null) {
+                schedules = load();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @EventListener({CachesStaleEvent.class, HallLayoutsChangedEvent.class})
+    public void reload() {
+        lock.writeLock().lock();
+        try {
+            schedules = load();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onSessionChanged(SessionChangedEvent event) {
+        lock.writeLock().lock();
+        try {
+            if (schedules == null) {
+                // not loaded yet; the load reads the committed change
+                return;
+            }
+            IntervalTree schedule = schedules.computeIfAbsent(event.hallId(), id -> new IntervalTree());
+            long start = toMillis(event.startTime());
+            // Other status changes re-announce sessions that are already indexed.
+            schedule.remove(event.sessionId(), start);
+            if (event.status() != SessionStatus.CANCELLED && event.status() != SessionStatus.COMPLETED) {
+                schedule.insert(event.sessionId(), start, toMillis(event.endTime()));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onSessionStatusesUpdated(SessionStatusesUpdatedEvent event) {
+        removeEndedBefore(OffsetDateTime.now());
+    }
+
+    /** Drops the sessions that ended at or before {@code time}. */
+    public int removeEndedBefore(OffsetDateTime time) {
+        long now = toMillis(time);
+        int removed = 0;
+        lock.writeLock().lock();
+        try {
+            if (schedules == null) {
+                return 0;
+            }
+            horizon = Math.max(horizon, now);
+            for (IntervalTree schedule : schedules.values()) {
+                for (IntervalTree.Interval interval : schedule.findOverlapping(Long.MIN_VALUE, now)) {
+                    if (interval.end() <= now && schedule.remove(interval.id(), interval.start())) {
+                        removed++;
+                    }
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        if (removed > 0) {
+            log.debug("Dropped {} ended sessions from the hall availability index", removed);
+        }
+        return removed;
+    }
+
+    private Map<Long, IntervalTree> load() {
+        Map<Long, IntervalTree> loaded = new HashMap<>();
+        OffsetDateTime now = OffsetDateTime.now();
+        var slots = primaryReads.load(() -> sessionRepository.findSessionSlotsEndingAfter(now));
+        horizon = toMillis(now);
+        for (SessionRepository.SessionSlotView slot : slots) {
+            loaded.computeIfAbsent(slot.getHallId(), id -> new IntervalTree())
+                    .insert(slot.getId(), toMillis(slot.getStartTime()), toMillis(slot.getEndTime()));
+        }
+        log.info("Indexed {} sessions across {} halls", slots.size(), loaded.size());
+        return loaded;
+    }
+
+    private static long toMillis(OffsetDateTime time) {
+        return time.toInstant().toEpochMilli();
+    }
+}
@@ -0,0 +1,200 @@
+package org.example.db_project.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.db_project.domain.entity.Hall;
+import org.example.db_project.domain.entity.Seat;
+import org.example.db_project.domain.enums.HallType;
+import org.example.db_project.domain.enums.SeatType;
+import org.example.db_project.domain.event.CachesStaleEvent;
+import org.example.db_project.domain.event.HallLayoutsChangedEvent;
+import org.example.db_project.domain.repository.HallRepository;
+import org.example.db_project.domain.repository.SeatRepository;
+import org.example.db_project.dto.response.HallResponse;
+import org.example.db_project.dto.response.SeatResponse;
+import org.example.db_project.exception.ResourceNotFoundException;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Immutable snapshot of every hall and its seats, held as flat arrays in seat-map order
+ * (row, then seat number). Loaded at startup and replaced wholesale by {@link #reload()};
+ * halls and seats are only changed by migrations, so it reloads only when told to with a
+ * {@link HallLayoutsChangedEvent}, on every instance, or after missing other instances' events.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class HallLayoutCache {
+    private final HallRepository hallRepository;
+    private final SeatRepository seatRepository;
+    private volatile Map<Long, HallLayout> layouts;
+
+    public HallLayout get(Long hallId) {
+        HallLayout layout = layouts().get(hallId);
+        if (layout == null) {
+            throw new ResourceNotFoundException("Hall", hallId);
+        }
+        return layout;
+    }
+
+    public Collection<HallLayout> getAll() {
+        return layouts().values();
+    }
+
+    public boolean containsSeat(Long seatId) {
+        return layouts().values().stream().anyMatch(layout -> layout.contains(seatId));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        layouts();
+    }
+
+    /** Runs before the listeners of caches built on the layouts, so they rebuild from the new ones. */
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @EventListener({HallLayoutsChangedEvent.class, CachesStaleEvent.class})
+    public void onLayoutsChanged() {
+        reload();
+    }
+
+    public synchronized Collection<HallLayout> reload() {
+        Map<Long, List<Seat>> seatsByHall = seatRepository.findAllOrderedByHall().stream()
+                .collect(Collectors.groupingBy(seat -> seat.getHall().getId()));
+        Map<Long, HallLayout> loaded = new HashMap<>();
+        for (Hall hall : hallRepository.findAll()) {
+            loaded.put(hall.getId(), new HallLayout(hall, seatsByHall.getOrDefault(hall.getId(), List.of())));
+        }
+        layouts = Map.copyOf(loaded);
+        log.info("Loaded layouts of {} halls with {} seats", loaded.size(),
+                loaded.values().stream().mapToInt(HallLayout::size).sum());
+        return layouts.values();
+    }
+
+    private Map<Long, HallLayout> layouts() {
+        Map<Long, HallLayout> current = layouts;
+        if (current != null) {
+            return current;
+        }
+        synchronized (this) {
+            if (layouts == null) {
+                reload();
+            }
+            return layouts;
+        }
+    }
+
+    public static final class HallLayout {
+        private final Long hallId;
+        private final String name;
+        private final HallType hallType;
+        private final int capacity;
+        private final long[] seatIds;
+        private final int[] rowNumbers;
+        private final int[] seatNumbers;
+        private final SeatType[] seatTypes;
+        private final BigDecimal[] priceMultipliers;
+        private final long[] sortedSeatIds;
+        private final int[] sortedOrdinals;
+
+        HallLayout(Hall hall, List<Seat> seats) {
+            this.hallId = hall.getId();
+            this.name = hall.getName();
+            this.hallType = hall.getHallType();
+            this.capacity = hall.getCapacity();
+            int size = seats.size();
+            this.seatIds = new long[size];
+            this.rowNumbers = new int[size];
+            this.seatNumbers = new int[size];
+            this.seatTypes = new SeatType[size];
+            this.priceMultipliers = new BigDecimal[size];
+            for (int i = 0; i < size; i++) {
+                Seat seat = seats.get(i);
+                seatIds[i] = seat.getId();
+                rowNumbers[i] = seat.getRowNumber();
+                seatNumbers[i] = seat.getSeatNumber();
+                seatTypes[i] = seat.getSeatType();
+                priceMultipliers[i] = seat.getPriceMultiplier();
+            }
+            List<Integer> bySeatId = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                bySeatId.add(i);
+            }
+            bySeatId.sort((a, b) -> Long.compare(seatIds[a], seatIds[b]));
+            this.sortedSeatIds = new long[size];
+            this.sortedOrdinals = new int[size];
+            for (int i = 0; i < size; i++) {
+                sortedOrdinals[i] = bySeatId.get(i);
+                sortedSeatIds[i] = seatIds[sortedOrdinals[i]];
+            }
+        }
+
+        public Long getHallId() {
+            return hallId;
+        }
+
+        public HallType getHallType() {
+            return hallType;
+        }
+
+        public int size() {
+            return seatIds.length;
+        }
+
+        /** Position of the seat in seat-map order, or -1 if it is not in this hall. */
+        public int ordinalOf(Long seatId) {
+            int index = Arrays.binarySearch(sortedSeatIds, seatId);
+            return index >= 0 ? sortedOrdinals[index] : -1;
+        }
+
+        public boolean contains(Long seatId) {
+            return ordinalOf(seatId) >= 0;
+        }
+
+        public long seatIdAt(int ordinal) {
+            return seatIds[ordinal];
+        }
+
+        public BigDecimal priceMultiplierAt(int ordinal) {
+            return priceMultipliers[ordinal];
+        }
+
+        public SeatResponse toSeatResponse(int ordinal, boolean available) {
+            return toSeatResponse(ordinal, available, null);
+        }
+
+        public SeatResponse toSeatResponse(int ordinal, boolean available, BigDecimal price) {
+            return SeatResponse.builder()
+                    .id(seatIds[ordinal])
+                    .rowNumber(rowNumbers[ordinal])
+                    .seatNumber(seatNumbers[ordinal])
+                    .seatType(seatTypes[ordinal])
+                    .priceMultiplier(priceMultipliers[ordinal])
+                    .seatLabel("Row " + rowNumbers[ordinal] + ", Seat " + seatNumbers[ordinal])
+                    .available(available)
+                    .price(price)
+                    .build();
+        }
+
+        public HallResponse toHallResponse() {
+            return HallResponse.builder()
+                    .id(hallId)
+                    .name(name)
+                    .hallType(hallType)
+                    .capacity(capacity)
+                    .build();
+        }
+    }
+}
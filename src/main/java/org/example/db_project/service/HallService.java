@@ -2,19 +2,29 @@ package org.example.db_project.service;
 
 import lombok.RequiredArgsConstructor;
 import org.example.db_project.domain.entity.Hall;
+import org.example.db_project.domain.enums.HallType;
+import org.example.db_project.domain.event.HallLayoutsChangedEvent;
 import org.example.db_project.domain.repository.HallRepository;
+import org.example.db_project.dto.response.FreeSlotResponse;
 import org.example.db_project.dto.response.HallResponse;
 import org.example.db_project.exception.ResourceNotFoundException;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Duration;
 import java.time.OffsetDateTime;
 import java.util.List;
 
 @Service
 @RequiredArgsConstructor
 public class HallService {
+    static final int MAX_FREE_SLOTS = 100;
+
     private final HallRepository hallRepository;
+    private final HallLayoutCache hallLayoutCache;
+    private final HallAvailabilityIndex hallAvailabilityIndex;
+    private final ApplicationEventPublisher eventPublisher;
 
     public List<HallResponse> getAllHalls() {
         return hallRepository.findAll()
@@ -29,10 +39,38 @@ public class HallService {
         return toResponse(hall);
     }
 
-    public List<HallResponse> getAvailableHalls(OffsetDateTime startTime, OffsetDateTime endTime) {
-        return hallRepository.findAvailableHalls(startTime, endTime)
+    public List<HallResponse> getAvailableHalls(OffsetDateTime startTime, OffsetDateTime endTime,
+                                                HallType hallType) {
+        return hallAvailabilityIndex.findAvailableHalls(startTime, endTime, hallType)
                 .stream()
-                .map(this::toResponse)
+                .map(HallLayoutCache.HallLayout::toHallResponse)
+                .toList();
+    }
+
+    public List<FreeSlotResponse> getFreeSlots(Long hallId, OffsetDateTime from, int lengthMinutes, int count) {
+        if (lengthMinutes <= 0) {
+            throw new IllegalStateException("Slot length must be positive");
+        }
+        if (count <= 0 || count > MAX_FREE_SLOTS) {
+            throw new IllegalStateException("Slot count must be between 1 and " + MAX_FREE_SLOTS);
+        }
+        Duration length = Duration.ofMinutes(lengthMinutes);
+        return hallAvailabilityIndex.findFreeSlots(hallId, from, length, count)
+                .stream()
+                .map(start -> FreeSlotResponse.builder()
+                        .hallId(hallId)
+                        .startTime(start)
+                        .endTime(start.plus(length))
+                        .build())
+                .toList();
+    }
+
+    public List<HallResponse> reloadLayouts() {
+        // Reloads the layouts and the caches built on them here and on the other instances
+        eventPublisher.publishEvent(new HallLayoutsChangedEvent());
+        return hallLayoutCache.getAll()
+                .stream()
+                .map(HallLayoutCache.HallLayout::toHallResponse)
                 .toList();
     }
 
@@ -0,0 +1,229 @@
+package org.example.db_project.service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * AVL tree of half-open intervals {@code [start, end)} identified by a long id and ordered
+ * by (start, id). Every node also keeps the largest end in its subtree, so overlap queries
+ * skip subtrees that end before the query starts and run in O(log n + k) for k matches.
+ * Not thread-safe.
+ */
+public final class IntervalTree {
+    private Node root;
+    private int size;
+
+    public int size() {
+        return size;
+    }
+
+    public void insert(long id, long start, long end) {
+        if (end <= start) {
+            throw new IllegalArgumentException("Interval must end after it starts: [" + start + ", " + end + ")");
+        }
+        root = insert(root, new Node(id, start, end));
+        size++;
+    }
+
+    /** Removes the interval with this id and start; returns false if there is none. */
+    public boolean remove(long id, long start) {
+        int before = size;
+        root = remove(root, id, start);
+        return size < before;
+    }
+
+    public boolean overlaps(long start, long end) {
+        return overlaps(root, start, end);
+    }
+
+    /** Intervals overlapping {@code [start, end)}, in start order. */
+    public List<Interval> findOverlapping(long start, long end) {
+        List<Interval> result = new ArrayList<>();
+        collectOverlapping(root, start, end, result);
+        return result;
+    }
+
+    /**
+     * Start of the first gap of at least {@code length} at or after {@code from}; every
+     * interval overlapping a candidate gap moves the candidate past that interval's end.
+     */
+    public long nextGap(long from, long length) {
+        long candidate = from;
+        while (true) {
+            long blockedUntil = maxEndOverlapping(root, candidate, candidate + length, Long.MIN_VALUE);
+            if (blockedUntil == Long.MIN_VALUE) {
+                return candidate;
+            }
+            candidate = blockedUntil;
+        }
+    }
+
+    private static Node insert(Node node, Node added) {
+        if (node == null) {
+            return added;
+        }
+        if (compare(added.start, added.id, node) < 0) {
+            node.left = insert(node.left, added);
+        } else {
+            node.right = insert(node.right, added);
+        }
+        return rebalance(node);
+    }
+
+    private Node remove(Node node, long id, long start) {
+        if (node == null) {
+            return null;
+        }
+        int cmp = compare(start, id, node);
+        if (cmp < 0) {
+            node.left = remove(node.left, id, start);
+        } else if (cmp > 0) {
+            node.right = remove(node.right, id, start);
+        } else {
+            size--;
+            if (node.left == null) {
+                return node.right;
+            }
+            if (node.right == null) {
+                return node.left;
+            }
+            Node successor = node.right;
+            while (successor.left != null) {
+                successor = successor.left;
+            }
+            node.right = removeMin(node.right);
+            successor.left = node.left;
+            successor.right = node.right;
+            return rebalance(successor);
+        }
+        return rebalance(node);
+    }
+
+    private static Node removeMin(Node node) {
+        if (node.left == null) {
+            return node.right;
+        }
+        node.left = removeMin(node.left);
+        return rebalance(node);
+    }
+
+    private static boolean overlaps(Node node, long start, long end) {
+        while (node != null && node.maxEnd > start) {
+            if (node.start < end && node.end > start) {
+                return true;
+            }
+            if (node.left != null && node.left.maxEnd > start) {
+                node = node.left;
+            } else if (node.start < end) {
+                node = node.right;
+            } else {
+                return false;
+            }
+        }
+        return false;
+    }
+
+    private static void collectOverlapping(Node node, long start, long end, List<Interval> result) {
+        if (node == null || node.maxEnd <= start) {
+            return;
+        }
+        collectOverlapping(node.left, start, end, result);
+        if (node.start < end) {
+            if (node.end > start) {
+                result.add(new Interval(node.id, node.start, node.end));
+            }
+            collectOverlapping(node.right, start, end, result);
+        }
+    }
+
+    private static long maxEndOverlapping(Node node, long start, long end, long max) {
+        if (node == null || node.maxEnd <= start) {
+            return max;
+        }
+        max = maxEndOverlapping(node.left, start, end, max);
+        if (node.start < end) {
+            if (node.end > start) {
+                max = Math.max(max, node.end);
+            }
+            max = maxEndOverlapping(node.right, start, end, max);
+        }
+        return max;
+    }
+
+    private static int compare(long start, long id, Node node) {
+        int cmp = Long.compare(start, node.start);
+        return cmp != 0 ? cmp : Long.compare(id, node.id);
+    }
+
+    private static Node rebalance(Node node) {
+        update(node);
+        int balance = height(node.left) - height(node.right);
+        if (balance > 1) {
+            if (height(node.left.left) < height(node.left.right)) {
+                node.left = rotateLeft(node.left);
+            }
+            return rotateRight(node);
+        }
+        if (balance < -1) {
+            if (height(node.right.right) < height(node.right.left)) {
+                node.right = rotateRight(node.right);
+            }
+            return rotateLeft(node);
+        }
+        return node;
+    }
+
+    private static Node rotateRight(Node node) {
+        Node pivot = node.left;
+        node.left = pivot.right;
+        pivot.right = node;
+        update(node);
+        update(pivot);
+        return pivot;
+    }
+
+    private static Node rotateLeft(Node node) {
+        Node pivot = node.right;
+        node.right = pivot.left;
+        pivot.left = node;
+        update(node);
+        update(pivot);
+        return pivot;
+    }
+
+    private static void update(Node node) {
+        node.height = 1 + Math.max(height(node.left), height(node.right));
+        long maxEnd = node.end;
+        if (node.left != null) {
+            maxEnd = Math.max(maxEnd, node.left.maxEnd);
+        }
+        if (node.right != null) {
+            maxEnd = Math.max(maxEnd, node.right.maxEnd);
+        }
+        node.maxEnd = maxEnd;
+    }
+
+    private static int height(Node node) {
+        return node == null ? 0 : node.height;
+    }
+
+    public record Interval(long id, long start, long end) {
+    }
+
+    private static final class Node {
+        final long id;
+        final long start;
+        final long end;
+        long maxEnd;
+        int height = 1;
+        Node left;
+        Node right;
+
+        Node(long id, long start, long end) {
+            this.id = id;
+            this.start = start;
+            this.end = end;
+            this.maxEnd = end;
+        }
+    }
+}
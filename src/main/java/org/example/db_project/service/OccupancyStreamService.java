@@ -0,0 +1,288 @@
+package org.example.db_project.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.example.db_project.domain.enums.SessionStatus;
+import org.example.db_project.domain.event.SeatAvailabilityChangedEvent;
+import org.example.db_project.domain.event.SessionChangedEvent;
+import org.example.db_project.domain.repository.SessionRepository;
+import org.example.db_project.dto.response.SeatAvailabilityUpdate;
+import org.example.db_project.dto.response.SessionOccupancyUpdate;
+import org.example.db_project.exception.ResourceNotFoundException;
+import org.example.db_project.service.SeatOccupancyIndex.SessionOccupancy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Pushes committed seat changes to Server-Sent Event subscribers: seat-level deltas to
+ * subscribers of one session and occupancy counts to subscribers of all sessions.
+ * Each subscriber has at most one send in flight; changes arriving meanwhile, or within
+ * {@code occupancy.stream.coalesce-window} of the first one, are merged into its next
+ * update, so a slow client receives fewer, larger updates instead of a growing backlog.
+ */
+@Service
+@Slf4j
+public class OccupancyStreamService {
+    private final SeatOccupancyIndex seatOccupancyIndex;
+    private final SessionRepository sessionRepository;
+    private final Duration coalesceWindow;
+    private final Duration timeout;
+    private final ConcurrentMap<Long, List<SeatSubscriber>> seatSubscribers = new ConcurrentHashMap<>();
+    private final List<OccupancySubscriber> occupancySubscribers = new CopyOnWriteArrayList<>();
+    private final ConcurrentMap<Long, Long> sessionHalls = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("occupancy-stream-scheduler").daemon().factory());
+    private final ExecutorService senders = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("occupancy-stream-", 0).factory());
+    private final Counter updatesSent;
+
+    public OccupancyStreamService(SeatOccupancyIndex seatOccupancyIndex,
+                                  SessionRepository sessionRepository,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${occupancy.stream.coalesce-window:PT0.2S}") Duration coalesceWindow,
+                                  @Value("${occupancy.stream.timeout:PT30M}") Duration timeout) {
+        this.seatOccupancyIndex = seatOccupancyIndex;
+        this.sessionRepository = sessionRepository;
+        this.coalesceWindow = coalesceWindow;
+        this.timeout = timeout;
+        this.updatesSent = Counter.builder("occupancy.stream.updates").register(meterRegistry);
+        Gauge.builder("occupancy.stream.subscribers", this, OccupancyStreamService::getSubscriberCount)
+                .register(meterRegistry);
+    }
+
+    public SseEmitter subscribeToSession(Long sessionId) {
+        occupancyOf(sessionId);
+        SeatSubscriber subscriber = new SeatSubscriber(new SseEmitter(timeout.toMillis()), sessionId);
+        seatSubscribers.compute(sessionId, (id, subscribers) -> {
+            List<SeatSubscriber> updated = subscribers != null ? subscribers : new CopyOnWriteArrayList<>();
+            updated.add(subscriber);
+            return updated;
+        });
+        subscriber.onClose(() -> seatSubscribers.computeIfPresent(sessionId, (id, subscribers) -> {
+            subscribers.remove(subscriber);
+            return subscribers.isEmpty() ? null : subscribers;
+        }));
+        subscriber.markPending();
+        return subscriber.emitter;
+    }
+
+    public SseEmitter subscribeToOccupancy() {
+        OccupancySubscriber subscriber = new OccupancySubscriber(new SseEmitter(timeout.toMillis()));
+        occupancySubscribers.add(subscriber);
+        subscriber.onClose(() -> occupancySubscribers.remove(subscriber));
+        return subscriber.emitter;
+    }
+
+    public int getSubscriberCount() {
+        return occupancySubscribers.size() + seatSubscribers.values().stream().mapToInt(List::size).sum();
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onSeatAvailabilityChanged(SeatAvailabilityChangedEvent event) {
+        for (SeatSubscriber subscriber : seatSubscribers.getOrDefault(event.sessionId(), List.of())) {
+            subscriber.offer(event);
+        }
+        for (OccupancySubscriber subscriber : occupancySubscribers) {
+            subscriber.offer(event.sessionId());
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onSessionChanged(SessionChangedEvent event) {
+        if (event.status() == SessionStatus.CANCELLED) {
+            sessionHalls.remove(event.sessionId());
+            List<SeatSubscriber> subscribers = seatSubscribers.remove(event.sessionId());
+            if (subscribers != null) {
+                subscribers.forEach(subscriber -> subscriber.emitter.complete());
+            }
+        }
+    }
+
+    @PreDestroy
+    void stop() {
+        scheduler.shutdownNow();
+        senders.shutdownNow();
+        seatSubscribers.values().forEach(subscribers -> subscribers.forEach(subscriber -> subscriber.emitter.complete()));
+        occupancySubscribers.forEach(subscriber -> subscriber.emitter.complete());
+    }
+
+    private SessionOccupancy occupancyOf(Long sessionId) {
+        Long hallId = sessionHalls.computeIfAbsent(sessionId, id -> sessionRepository.findHallIdById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Session", id)));
+        return seatOccupancyIndex.getOccupancy(hallId, sessionId);
+    }
+
+    private abstract class Subscriber {
+        final SseEmitter emitter;
+        private boolean scheduled;
+        private volatile boolean closed;
+
+        Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        void onClose(Runnable callback) {
+            Runnable close = () -> {
+                closed = true;
+                callback.run();
+            };
+            emitter.onCompletion(close);
+            emitter.onTimeout(close);
+            emitter.onError(e -> close.run());
+        }
+
+        /** Called with the monitor held; returns false when there is nothing to send. */
+        abstract boolean hasPending();
+
+        /** Called with the monitor held; takes and clears the pending changes. */
+        abstract Runnable takePending();
+
+        final synchronized void markPending() {
+            if (!scheduled && !closed) {
+                scheduled = true;
+                scheduleDrain();
+            }
+        }
+
+        private void scheduleDrain() {
+            scheduler.schedule(() -> senders.execute(this::drain), coalesceWindow.toMillis(), TimeUnit.MILLISECONDS);
+        }
+
+        private void drain() {
+            Runnable send;
+            synchronized (this) {
+                if (closed || !hasPending()) {
+                    scheduled = false;
+                    return;
+                }
+                send = takePending();
+            }
+            try {
+                send.run();
+            } catch (RuntimeException e) {
+                log.warn("Failed to build occupancy stream update", e);
+            }
+            synchronized (this) {
+                if (!closed && hasPending()) {
+                    scheduleDrain();
+                } else {
+                    scheduled = false;
+                }
+            }
+        }
+
+        void send(String name, Object update) {
+            try {
+                emitter.send(SseEmitter.event().name(name).data(update));
+                updatesSent.increment();
+            } catch (IOException | IllegalStateException e) {
+                log.debug("Dropping occupancy stream subscriber: {}", e.getMessage());
+                closed = true;
+                emitter.completeWithError(e);
+            }
+        }
+    }
+
+    private final class SeatSubscriber extends Subscriber {
+        private final Long sessionId;
+        private final Set<Long> booked = new LinkedHashSet<>();
+        private final Set<Long> released = new LinkedHashSet<>();
+        private boolean snapshotPending = true;
+
+        SeatSubscriber(SseEmitter emitter, Long sessionId) {
+            super(emitter);
+            this.sessionId = sessionId;
+        }
+
+        void offer(SeatAvailabilityChangedEvent event) {
+            synchronized (this) {
+                Set<Long> added = event.booked() ? booked : released;
+                Set<Long> reverted = event.booked() ? released : booked;
+                reverted.removeAll(event.seatIds());
+                added.addAll(event.seatIds());
+            }
+            markPending();
+        }
+
+        @Override
+        boolean hasPending() {
+            return snapshotPending || !booked.isEmpty() || !released.isEmpty();
+        }
+
+        @Override
+        Runnable takePending() {
+            if (snapshotPending) {
+                // The snapshot is read after this point, so it covers every change cleared here.
+                snapshotPending = false;
+                booked.clear();
+                released.clear();
+                return () -> {
+                    SessionOccupancy occupancy = occupancyOf(sessionId);
+                    send("snapshot", new SeatAvailabilityUpdate(sessionId, occupancy.getBookedSeatIds(),
+                            List.of(), occupancy.getAvailableCount()));
+                };
+            }
+            List<Long> bookedIds = List.copyOf(booked);
+            List<Long> releasedIds = List.copyOf(released);
+            booked.clear();
+            released.clear();
+            return () -> send("seats", new SeatAvailabilityUpdate(sessionId, bookedIds, releasedIds,
+                    occupancyOf(sessionId).getAvailableCount()));
+        }
+    }
+
+    private final class OccupancySubscriber extends Subscriber {
+        private final Set<Long> changedSessions = new LinkedHashSet<>();
+
+        OccupancySubscriber(SseEmitter emitter) {
+            super(emitter);
+        }
+
+        void offer(Long sessionId) {
+            synchronized (this) {
+                changedSessions.add(sessionId);
+            }
+            markPending();
+        }
+
+        @Override
+        boolean hasPending() {
+            return !changedSessions.isEmpty();
+        }
+
+        @Override
+        Runnable takePending() {
+            List<Long> sessionIds = new ArrayList<>(changedSessions);
+            changedSessions.clear();
+            return () -> {
+                List<SessionOccupancyUpdate> updates = new ArrayList<>(sessionIds.size());
+                for (Long sessionId : sessionIds) {
+                    SessionOccupancy occupancy = occupancyOf(sessionId);
+                    updates.add(new SessionOccupancyUpdate(sessionId, occupancy.getSeatCount(),
+                            occupancy.getBookedCount(), occupancy.getAvailableCount()));
+                }
+                send("occupancy", updates);
+            };
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package org.example.db_project.service;
+
+import org.example.db_project.domain.enums.HallType;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+
+/**
+ * Adjusts the static seat prices of a session by its live occupancy and the time left
+ * until it starts. Above {@code pricing.surge.threshold} occupancy prices rise linearly
+ * up to {@code pricing.surge.max} for a full hall (half as much again in IMAX and VIP
+ * halls); a session that is still below the threshold within
+ * {@code pricing.last-minute.window} of its start is discounted. Factors are basis points
+ * and quotes are minor units, so quoting does no decimal arithmetic.
+ */
+@Component
+public class PricingEngine {
+    static final int BASIS_POINTS = 10_000;
+
+    private final boolean enabled;
+    private final int surgeThresholdBps;
+    private final int maxSurgeBps;
+    private final long lastMinuteWindowMillis;
+    private final int lastMinuteDiscountBps;
+
+    public PricingEngine(@Value("${pricing.dynamic.enabled:false}") boolean enabled,
+                         @Value("${pricing.surge.threshold:0.6}") BigDecimal surgeThreshold,
+                         @Value("${pricing.surge.max:0.25}") BigDecimal maxSurge,
+                         @Value("${pricing.last-minute.window:PT2H}") Duration lastMinuteWindow,
+                         @Value("${pricing.last-minute.discount:0.10}") BigDecimal lastMinuteDiscount) {
+        if (surgeThreshold.signum() < 0 || surgeThreshold.compareTo(BigDecimal.ONE) >= 0) {
+            throw new IllegalStateException("pricing.surge.threshold must be in [0, 1): " + surgeThreshold);
+        }
+        this.enabled = enabled;
+        this.surgeThresholdBps = toBasisPoints(surgeThreshold);
+        this.maxSurgeBps = toBasisPoints(maxSurge);
+        this.lastMinuteWindowMillis = lastMinuteWindow.toMillis();
+        this.lastMinuteDiscountBps = toBasisPoints(lastMinuteDiscount);
+    }
+
+    public PriceQuote quote(SessionPriceTables.PriceTable prices, SeatOccupancyIndex.SessionOccupancy occupancy) {
+        return new PriceQuote(prices, factorBps(prices.getLayout().getHallType(),
+                prices.getStartEpochMillis() - System.currentTimeMillis(),
+                occupancy.getBookedCount(), occupancy.getSeatCount()));
+    }
+
+    public BigDecimal priceFactor(HallType hallType, long millisToStart, long bookedSeats, int seatCount) {
+        return BigDecimal.valueOf(factorBps(hallType, millisToStart, bookedSeats, seatCount), 4);
+    }
+
+    int factorBps(HallType hallType, long millisToStart, long bookedSeats, int seatCount) {
+        if (!enabled || seatCount == 0) {
+            return BASIS_POINTS;
+        }
+        int occupancyBps = (int) (bookedSeats * BASIS_POINTS / seatCount);
+        if (occupancyBps > surgeThresholdBps) {
+            long surgeBps = (long) maxSurgeBps * (occupancyBps - surgeThresholdBps)
+                    / (BASIS_POINTS - surgeThresholdBps);
+            if (hallType == HallType.IMAX || hallType == HallType.VIP) {
+                surgeBps = surgeBps * 3 / 2;
+            }
+            return BASIS_POINTS + (int) surgeBps;
+        }
+        if (millisToStart > 0 && millisToStart <= lastMinuteWindowMillis) {
+            return BASIS_POINTS - lastMinuteDiscountBps;
+        }
+        return BASIS_POINTS;
+    }
+
+    private static int toBasisPoints(BigDecimal fraction) {
+        return fraction.movePointRight(4).intValueExact();
+    }
+
+    public record PriceQuote(SessionPriceTables.PriceTable prices, int factorBps) {
+        public long priceAt(int ordinal) {
+            return (prices.priceAt(ordinal) * factorBps + BASIS_POINTS / 2) / BASIS_POINTS;
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package org.example.db_project.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.example.db_project.domain.enums.BookingStatus;
+import org.example.db_project.domain.event.BookingStatusChangedEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+
+/**
+ * Maintains the daily revenue rollups read by {@link AnalyticsService}. A booking is added
+ * to its day's rows when the outbox relay delivers its completion, in the relay transaction
+ * that deletes the outbox row, so a redelivered event is never counted twice;
+ * {@link #reconcile()} periodically rebuilds a recent window from the bookings to repair
+ * any drift.
+ */
+@Service
+@Slf4j
+public class RevenueRollupService {
+    private static final String BOOKING_TOTALS = """
+            SELECT DATE(b.created_at) AS revenue_date, %s AS rollup_key,
+                   COUNT(*) AS bookings_count, SUM(t.tickets) AS tickets_sold, SUM(b.total_price) AS revenue
+            FROM bookings b
+            JOIN sessions s ON b.session_id = s.id
+            JOIN halls h ON s.hall_id = h.id
+            CROSS JOIN LATERAL (SELECT COUNT(*) AS tickets FROM booking_seats bs WHERE bs.booking_id = b.id) t
+            WHERE %s
+            GROUP BY 1, 2
+            """;
+    private static final String ADD_TO_ROLLUP = """
+            INSERT INTO %1$s (revenue_date, %2$s, bookings_count, tickets_sold, revenue)
+            %3$s
+            ON CONFLICT (revenue_date, %2$s) DO UPDATE SET
+                bookings_count = %1$s.bookings_count + EXCLUDED.bookings_count,
+                tickets_sold = %1$s.tickets_sold + EXCLUDED.tickets_sold,
+                revenue = %1$s.revenue + EXCLUDED.revenue
+            """;
+    private static final String REBUILD_ROLLUP = """
+            INSERT INTO %1$s (revenue_date, %2$s, bookings_count, tickets_sold, revenue)
+            %3$s
+            """;
+    private static final String BOOKING_BY_ID = "b.id = ?";
+    // A completion still waiting in the outbox is added by the relay, not by the rebuild.
+    private static final String COMPLETED_SINCE = """
+            b.status = 'COMPLETED' AND b.created_at >= CAST(? AS date)
+            AND NOT EXISTS (SELECT 1 FROM booking_outbox o WHERE o.booking_id = b.id AND o.to_status = 'COMPLETED')
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int reconcileDays;
+    private final Timer reconcileTimer;
+
+    public RevenueRollupService(JdbcTemplate jdbcTemplate,
+                                MeterRegistry meterRegistry,
+                                @Value("${analytics.rollup.reconcile-days:35}") int reconcileDays) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.reconcileDays = reconcileDays;
+        this.reconcileTimer = Timer.builder("analytics.rollup.reconcile")
+                .description("Time to rebuild the recent window of the revenue rollups")
+                .register(meterRegistry);
+    }
+
+    @EventListener
+    public void onBookingStatusChanged(BookingStatusChangedEvent event) {
+        if (event.toStatus() == BookingStatus.COMPLETED) {
+            recordCompleted(event.bookingId());
+        }
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordCompleted(Long bookingId) {
+        for (Rollup rollup : Rollup.values()) {
+            jdbcTemplate.update(ADD_TO_ROLLUP.formatted(rollup.table, rollup.keyColumn,
+                    BOOKING_TOTALS.formatted(rollup.keyExpression, BOOKING_BY_ID)), bookingId);
+        }
+    }
+
+    @Transactional
+    public void reconcile() {
+        reconcile(LocalDate.now().minusDays(reconcileDays));
+    }
+
+    @Transactional
+    public void reconcile(LocalDate from) {
+        reconcileTimer.record(() -> {
+            // Blocks recordCompleted until this rebuild commits; a completion relayed meanwhile
+            // is either visible to the rebuild or added on top of it, never both.
+            jdbcTemplate.execute("LOCK TABLE daily_movie_revenue, daily_hall_type_revenue IN SHARE ROW EXCLUSIVE MODE");
+            for (Rollup rollup : Rollup.values()) {
+                jdbcTemplate.update("DELETE FROM " + rollup.table + " WHERE revenue_date >= ?", from);
+                jdbcTemplate.update(REBUILD_ROLLUP.formatted(rollup.table, rollup.keyColumn,
+                        BOOKING_TOTALS.formatted(rollup.keyExpression, COMPLETED_SINCE)), from);
+            }
+        });
+        log.info("Revenue rollups reconciled from {}", from);
+    }
+
+    private enum Rollup {
+        MOVIE("daily_movie_revenue", "movie_id", "s.movie_id"),
+        HALL_TYPE("daily_hall_type_revenue", "hall_type", "h.hall_type");
+
+        private final String table;
+        private final String keyColumn;
+        private final String keyExpression;
+
+        Rollup(String table, String keyColumn, String keyExpression) {
+            this.table = table;
+            this.keyColumn = keyColumn;
+            this.keyExpression = keyExpression;
+        }
+    }
+}
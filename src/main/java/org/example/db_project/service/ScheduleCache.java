@@ -0,0 +1,194 @@
+package org.example.db_project.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.example.db_project.domain.event.CachesStaleEvent;
+import org.example.db_project.domain.event.SeatAvailabilityChangedEvent;
+import org.example.db_project.domain.event.SessionChangedEvent;
+import org.example.db_project.domain.event.SessionStatusesUpdatedEvent;
+import org.example.db_project.dto.response.SessionResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
+
+/**
+ * LRU cache of built daily schedules keyed by date. Entries are evicted when sessions
+ * change and patched in place when seats of a cached session are booked or released,
+ * taking the session's available seat count from {@link SeatOccupancyIndex}. Days run in
+ * {@code schedule.time-zone} (the JVM zone if unset), both here and in the query that
+ * loads them. A schedule loaded while a change to its day or one of its sessions was
+ * committed is returned but not cached.
+ */
+@Component
+@Slf4j
+public class ScheduleCache {
+    private final SeatOccupancyIndex seatOccupancyIndex;
+    private final int maxEntries;
+    private final Map<LocalDate, List<SessionResponse>> schedules;
+    private final Map<Long, LocalDate> sessionDates = new HashMap<>();
+    private final List<PendingLoad> pendingLoads = new ArrayList<>();
+    private final ZoneId zone;
+    private final Counter hits;
+    private final Counter misses;
+
+    public ScheduleCache(SeatOccupancyIndex seatOccupancyIndex,
+                         MeterRegistry meterRegistry,
+                         @Value("${schedule.cache.max-entries:64}") int maxEntries,
+                         @Value("${schedule.time-zone:}") String zone) {
+        this.seatOccupancyIndex = seatOccupancyIndex;
+        this.zone = zone.isBlank() ? ZoneId.systemDefault() : ZoneId.of(zone);
+        this.maxEntries = maxEntries;
+        this.schedules = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<LocalDate, List<SessionResponse>> eldest) {
+                if (size() > ScheduleCache.this.maxEntries) {
+                    forgetSessions(eldest.getValue());
+                    return true;
+                }
+                return false;
+            }
+        };
+        this.hits = Counter.builder("schedule.cache.requests").tag("result", "hit").register(meterRegistry);
+        this.misses = Counter.builder("schedule.cache.requests").tag("result", "miss").register(meterRegistry);
+        Gauge.builder("schedule.cache.size", this, ScheduleCache::size).register(meterRegistry);
+        Gauge.builder("schedule.cache.hit.ratio", this, ScheduleCache::hitRatio).register(meterRegistry);
+    }
+
+    public ZoneId getZone() {
+        return zone;
+    }
+
+    public LocalDate dateOf(OffsetDateTime time) {
+        return time.atZoneSameInstant(zone).toLocalDate();
+    }
+
+    public List<SessionResponse> get(LocalDate date, Supplier<List<SessionResponse>> loader) {
+        PendingLoad load = new PendingLoad(date);
+        synchronized (this) {
+            List<SessionResponse> cached = schedules.get(date);
+            if (cached != null) {
+                hits.increment();
+                return cached;
+            }
+            pendingLoads.add(load);
+        }
+        misses.increment();
+        List<SessionResponse> schedule;
+        try {
+            schedule = List.copyOf(loader.get());
+        } finally {
+            synchronized (this) {
+                pendingLoads.remove(load);
+            }
+        }
+        synchronized (this) {
+            if (!load.stale && schedule.stream().noneMatch(session -> load.changedSessions.contains(session.getId()))) {
+                schedules.put(date, schedule);
+                schedule.forEach(session -> sessionDates.put(session.getId(), date));
+            }
+        }
+        return schedule;
+    }
+
+    public synchronized int size() {
+        return schedules.size();
+    }
+
+    public double hitRatio() {
+        double total = hits.count() + misses.count();
+        return total == 0 ? 0 : hits.count() / total;
+    }
+
+    public synchronized void invalidateAll() {
+        pendingLoads.forEach(load -> load.stale = true);
+        schedules.clear();
+        sessionDates.clear();
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public synchronized void onSessionChanged(SessionChangedEvent event) {
+        pendingLoads.forEach(load -> load.changedSessions.add(event.sessionId()));
+        LocalDate cachedDate = sessionDates.get(event.sessionId());
+        if (cachedDate != null) {
+            evict(cachedDate);
+        }
+        evict(dateOf(event.startTime()));
+    }
+
+    @EventListener(CachesStaleEvent.class)
+    public void onCachesStale() {
+        invalidateAll();
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onSessionStatusesUpdated(SessionStatusesUpdatedEvent event) {
+        invalidateAll();
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public synchronized void onSeatAvailabilityChanged(SeatAvailabilityChangedEvent event) {
+        pendingLoads.forEach(load -> load.changedSessions.add(event.sessionId()));
+        LocalDate date = sessionDates.get(event.sessionId());
+        List<SessionResponse> schedule = date != null ? schedules.get(date) : null;
+        if (schedule == null) {
+            return;
+        }
+        if (!seatOccupancyIndex.isLoaded(event.sessionId())) {
+            evict(date);
+            return;
+        }
+        // The index has already applied this event; its absolute count is immune to
+        // duplicated or replayed events, unlike a relative delta.
+        List<SessionResponse> patched = schedule.stream()
+                .map(session -> session.getId().equals(event.sessionId())
+                        ? session.toBuilder()
+                        .availableSeats(seatOccupancyIndex.countAvailableSeats(
+                                session.getHall().getId(), session.getId()))
+                        .build()
+                        : session)
+                .toList();
+        schedules.put(date, patched);
+    }
+
+    private void evict(LocalDate date) {
+        pendingLoads.stream()
+                .filter(load -> load.date.equals(date))
+                .forEach(load -> load.stale = true);
+        List<SessionResponse> removed = schedules.remove(date);
+        if (removed != null) {
+            forgetSessions(removed);
+            log.debug("Evicted cached schedule for {}", date);
+        }
+    }
+
+    private void forgetSessions(List<SessionResponse> schedule) {
+        schedule.forEach(session -> sessionDates.remove(session.getId()));
+    }
+
+    /** A schedule being loaded, and the changes committed meanwhile; guarded by the cache's monitor. */
+    private static final class PendingLoad {
+        final LocalDate date;
+        final Set<Long> changedSessions = new HashSet<>();
+        boolean stale;
+
+        PendingLoad(LocalDate date) {
+            this.date = date;
+        }
+    }
+}
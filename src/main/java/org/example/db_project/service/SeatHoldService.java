@@ -0,0 +1,145 @@
+package org.example.db_project.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.example.db_project.config.PrimaryReads;
+import org.example.db_project.domain.event.SeatHoldExpiredEvent;
+import org.example.db_project.domain.repository.BookingRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tracks the seat holds of PENDING bookings in a delay queue and expires each booking
+ * as soon as its hold lapses. The PENDING booking row is the persisted form of a hold,
+ * so holds are rebuilt from {@link BookingRepository} on startup. Holds placed or released
+ * inside a transaction take effect only once it commits, so a rollback leaves them as they were.
+ */
+@Service
+@Slf4j
+public class SeatHoldService {
+    private final BookingRepository bookingRepository;
+    private final PrimaryReads primaryReads;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Duration ttl;
+    private final DelayQueue<SeatHold> queue = new DelayQueue<>();
+    private final ConcurrentMap<Long, SeatHold> holds = new ConcurrentHashMap<>();
+    private Thread reaper;
+
+    public SeatHoldService(BookingRepository bookingRepository,
+                           PrimaryReads primaryReads,
+                           ApplicationEventPublisher eventPublisher,
+                           @Value("${booking.hold.ttl:PT15M}") Duration ttl) {
+        this.bookingRepository = bookingRepository;
+        this.primaryReads = primaryReads;
+        this.eventPublisher = eventPublisher;
+        this.ttl = ttl;
+    }
+
+    public Duration getTtl() {
+        return ttl;
+    }
+
+    public int getActiveHoldCount() {
+        return holds.size();
+    }
+
+    public void place(Long bookingId, OffsetDateTime createdAt) {
+        SeatHold hold = new SeatHold(bookingId, createdAt.toInstant().plus(ttl));
+        afterCommit(() -> {
+            holds.put(bookingId, hold);
+            queue.offer(hold);
+        });
+    }
+
+    public void release(Long bookingId) {
+        afterCommit(() -> holds.remove(bookingId));
+    }
+
+    public void releaseAll(Collection<Long> bookingIds) {
+        List<Long> released = List.copyOf(bookingIds);
+        afterCommit(() -> released.forEach(holds::remove));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void restoreHolds() {
+        var pending = primaryReads.load(bookingRepository::findPendingHolds);
+        pending.forEach(hold -> place(hold.getBookingId(), hold.getCreatedAt()));
+        log.info("Restored {} seat holds from pending bookings", pending.size());
+    }
+
+    @PostConstruct
+    void start() {
+        reaper = Thread.ofPlatform()
+                .name("seat-hold-reaper")
+                .daemon()
+                .start(this::reapExpiredHolds);
+    }
+
+    @PreDestroy
+    void stop() {
+        reaper.interrupt();
+    }
+
+    private void reapExpiredHolds() {
+        while (!Thread.currentThread().isInterrupted()) {
+            SeatHold hold;
+            try {
+                hold = queue.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            if (!holds.remove(hold.bookingId(), hold)) {
+                // released or replaced since it was queued
+                continue;
+            }
+            try {
+                eventPublisher.publishEvent(new SeatHoldExpiredEvent(hold.bookingId()));
+            } catch (RuntimeException e) {
+                log.error("Failed to expire seat hold for booking {}", hold.bookingId(), e);
+            }
+        }
+    }
+
+    private static void afterCommit(Runnable change) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            change.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                change.run();
+            }
+        });
+    }
+
+    record SeatHold(Long bookingId, Instant expiresAt) implements Delayed {
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(Duration.between(Instant.now(), expiresAt));
+        }
+
+        @Override
+        public int compareTo(Delayed other) {
+            return expiresAt.compareTo(((SeatHold) other).expiresAt);
+        }
+    }
+}
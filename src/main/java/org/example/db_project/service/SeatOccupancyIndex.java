@@ -0,0 +1,161 @@
+package org.example.db_project.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.db_project.config.PrimaryReads;
+import org.example.db_project.domain.enums.SessionStatus;
+import org.example.db_project.domain.event.CachesStaleEvent;
+import org.example.db_project.domain.event.HallLayoutsChangedEvent;
+import org.example.db_project.domain.event.SeatAvailabilityChangedEvent;
+import org.example.db_project.domain.event.SessionChangedEvent;
+import org.example.db_project.domain.repository.BookingSeatRepository;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Per-session seat occupancy kept as a bitset over the seat ordinals of the session's
+ * {@link HallLayoutCache.HallLayout}. Built once from the primary database on first
+ * access and then maintained from committed booking changes, including those of other
+ * instances. Rebuilt if the hall layout has been reloaded.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class SeatOccupancyIndex {
+    private final HallLayoutCache hallLayoutCache;
+    private final BookingSeatRepository bookingSeatRepository;
+    private final PrimaryReads primaryReads;
+    private final ConcurrentMap<Long, SessionOccupancy> sessions = new ConcurrentHashMap<>();
+
+    public SessionOccupancy getOccupancy(Long hallId, Long sessionId) {
+        SessionOccupancy occupancy = sessions.get(sessionId);
+        if (occupancy != null && occupancy.isCurrent(hallLayoutCache)) {
+            return occupancy;
+        }
+        return sessions.compute(sessionId, (id, existing) -> existing != null && existing.isCurrent(hallLayoutCache)
+                ? existing
+                : load(hallId, id));
+    }
+
+    public int countAvailableSeats(Long hallId, Long sessionId) {
+        return getOccupancy(hallId, sessionId).getAvailableCount();
+    }
+
+    public boolean isLoaded(Long sessionId) {
+        return sessions.containsKey(sessionId);
+    }
+
+    public void evict(Long sessionId) {
+        sessions.remove(sessionId);
+    }
+
+    public void retainSessions(Collection<Long> activeSessionIds) {
+        Set<Long> active = Set.copyOf(activeSessionIds);
+        sessions.keySet().removeIf(id -> !active.contains(id));
+    }
+
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onSeatAvailabilityChanged(SeatAvailabilityChangedEvent event) {
+        // computeIfPresent waits for an in-flight load of the same session, so a commit
+        // racing with the initial load is applied on top of it instead of being lost.
+        sessions.computeIfPresent(event.sessionId(), (id, occupancy) -> {
+            if (event.booked()) {
+                occupancy.apply(event.seatIds(), true);
+            } else {
+                // Releases arrive through the outbox relay, possibly after the seats were booked
+                // again; only seats that are still free are cleared.
+                List<Long> rebooked = primaryReads.load(() ->
+                        bookingSeatRepository.findBookedSeatIdsForSession(id, event.seatIds()));
+                occupancy.release(event.seatIds(), rebooked);
+            }
+            return occupancy;
+        });
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onSessionChanged(SessionChangedEvent event) {
+        if (event.status() == SessionStatus.CANCELLED || event.status() == SessionStatus.COMPLETED) {
+            evict(event.sessionId());
+        }
+    }
+
+    @EventListener({CachesStaleEvent.class, HallLayoutsChangedEvent.class})
+    public void evictAll() {
+        sessions.clear();
+    }
+
+    private SessionOccupancy load(Long hallId, Long sessionId) {
+        HallLayoutCache.HallLayout layout = hallLayoutCache.get(hallId);
+        SessionOccupancy occupancy = new SessionOccupancy(layout);
+        occupancy.apply(primaryReads.load(() -> bookingSeatRepository.findBookedSeatIdsForSession(sessionId)), true);
+        log.debug("Loaded seat occupancy for session {}: {} of {} seats booked",
+                sessionId, occupancy.getBookedCount(), layout.size());
+        return occupancy;
+    }
+
+    public static final class SessionOccupancy {
+        private final HallLayoutCache.HallLayout layout;
+        private final BitSet booked;
+
+        SessionOccupancy(HallLayoutCache.HallLayout layout) {
+            this.layout = layout;
+            this.booked = new BitSet(layout.size());
+        }
+
+        public synchronized boolean isBooked(Long seatId) {
+            int ordinal = layout.ordinalOf(seatId);
+            return ordinal >= 0 && booked.get(ordinal);
+        }
+
+        public synchronized int getBookedCount() {
+            return booked.cardinality();
+        }
+
+        public synchronized int getAvailableCount() {
+            return layout.size() - booked.cardinality();
+        }
+
+        public int getSeatCount() {
+            return layout.size();
+        }
+
+        public synchronized List<Long> getBookedSeatIds() {
+            List<Long> seatIds = new ArrayList<>(booked.cardinality());
+            for (int i = booked.nextSetBit(0); i >= 0; i = booked.nextSetBit(i + 1)) {
+                seatIds.add(layout.seatIdAt(i));
+            }
+            return seatIds;
+        }
+
+        boolean isCurrent(HallLayoutCache hallLayoutCache) {
+            return hallLayoutCache.get(layout.getHallId()) == layout;
+        }
+
+        synchronized void release(Collection<Long> seatIds, Collection<Long> rebooked) {
+            apply(seatIds, false);
+            apply(rebooked, true);
+        }
+
+        synchronized void apply(Collection<Long> seatIds, boolean isBooked) {
+            for (Long seatId : seatIds) {
+                int ordinal = layout.ordinalOf(seatId);
+                if (ordinal >= 0) {
+                    booked.set(ordinal, isBooked);
+                }
+            }
+        }
+    }
+}
@@ -2,41 +2,75 @@ package org.example.db_project.service;
 
 import lombok.RequiredArgsConstructor;
 import org.example.db_project.domain.entity.Seat;
-import org.example.db_project.domain.repository.BookingSeatRepository;
+import org.example.db_project.domain.entity.Session;
 import org.example.db_project.domain.repository.SeatRepository;
 import org.example.db_project.dto.response.SeatResponse;
 import org.example.db_project.exception.ResourceNotFoundException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
-import java.util.Set;
+import java.util.Map;
 
 @Service
 @RequiredArgsConstructor
 public class SeatService {
     private final SeatRepository seatRepository;
-    private final BookingSeatRepository bookingSeatRepository;
+    private final SeatOccupancyIndex seatOccupancyIndex;
+    private final HallLayoutCache hallLayoutCache;
+    private final SessionPriceTables sessionPriceTables;
+    private final PricingEngine pricingEngine;
 
     public List<SeatResponse> getSeatsByHall(Long hallId) {
-        return seatRepository.findByHallIdOrdered(hallId)
-                .stream()
-                .map(this::toResponse)
-                .toList();
+        HallLayoutCache.HallLayout layout = hallLayoutCache.get(hallId);
+        List<SeatResponse> seats = new ArrayList<>(layout.size());
+        for (int i = 0; i < layout.size(); i++) {
+            seats.add(layout.toSeatResponse(i, true));
+        }
+        return seats;
     }
 
-    @Transactional(readOnly = true)
     public List<SeatResponse> getAvailableSeatsForSession(Long hallId, Long sessionId) {
-        List<Long> bookedSeatIds = bookingSeatRepository.findBookedSeatIdsForSession(sessionId);
-        Set<Long> bookedSeatIdSet = Set.copyOf(bookedSeatIds);
-        return seatRepository.findByHallIdOrdered(hallId)
-                .stream()
-                .map(seat -> toResponse(seat, !bookedSeatIdSet.contains(seat.getId())))
-                .toList();
+        SessionPriceTables.PriceTable prices = sessionPriceTables.get(sessionId);
+        HallLayoutCache.HallLayout layout = prices.getLayout();
+        SeatOccupancyIndex.SessionOccupancy occupancy = seatOccupancyIndex.getOccupancy(hallId, sessionId);
+        PricingEngine.PriceQuote quote = pricingEngine.quote(prices, occupancy);
+        List<SeatResponse> seats = new ArrayList<>(layout.size());
+        for (int i = 0; i < layout.size(); i++) {
+            seats.add(layout.toSeatResponse(i, !occupancy.isBooked(layout.seatIdAt(i)),
+                    SessionPriceTables.PriceTable.toAmount(quote.priceAt(i))));
+        }
+        return seats;
+    }
+
+    public PricingEngine.PriceQuote quotePrices(Session session) {
+        SessionPriceTables.PriceTable prices = sessionPriceTables.get(session);
+        return pricingEngine.quote(prices,
+                seatOccupancyIndex.getOccupancy(session.getHall().getId(), session.getId()));
     }
 
     public int countAvailableSeats(Long hallId, Long sessionId) {
-        return seatRepository.countAvailableSeatsForSession(hallId, sessionId);
+        return seatOccupancyIndex.countAvailableSeats(hallId, sessionId);
+    }
+
+    public Map<Long, Integer> countAvailableSeats(List<Session> sessions) {
+        Map<Long, Integer> availableSeats = new HashMap<>();
+        List<Long> notLoaded = new ArrayList<>();
+        for (Session session : sessions) {
+            if (seatOccupancyIndex.isLoaded(session.getId())) {
+                availableSeats.put(session.getId(),
+                        seatOccupancyIndex.countAvailableSeats(session.getHall().getId(), session.getId()));
+            } else {
+                notLoaded.add(session.getId());
+            }
+        }
+        if (!notLoaded.isEmpty()) {
+            seatRepository.countAvailableSeatsForSessions(notLoaded).forEach(row ->
+                    availableSeats.put(row.getSessionId(), row.getAvailableSeats().intValue()));
+        }
+        return availableSeats;
     }
 
     @Transactional
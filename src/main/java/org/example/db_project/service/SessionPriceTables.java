@@ -0,0 +1,119 @@
+package org.example.db_project.service;
+
+import lombok.RequiredArgsConstructor;
+import org.example.db_project.config.PrimaryReads;
+import org.example.db_project.domain.entity.Session;
+import org.example.db_project.domain.enums.SessionStatus;
+import org.example.db_project.domain.event.SessionChangedEvent;
+import org.example.db_project.domain.repository.SessionRepository;
+import org.example.db_project.exception.ResourceNotFoundException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.OffsetDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Seat prices of each session in minor currency units, indexed by the seat's ordinal in
+ * its {@link HallLayoutCache.HallLayout}. A table is built when the session is created
+ * (or on first use after a restart) and rebuilt if the hall layout has been reloaded.
+ */
+@Component
+@RequiredArgsConstructor
+public class SessionPriceTables {
+    private final HallLayoutCache hallLayoutCache;
+    private final SessionRepository sessionRepository;
+    private final PrimaryReads primaryReads;
+    private final ConcurrentMap<Long, PriceTable> tables = new ConcurrentHashMap<>();
+
+    public PriceTable get(Session session) {
+        return get(session.getId(), session.getHall().getId(), session.getBasePrice(), session.getStartTime());
+    }
+
+    public PriceTable get(Long sessionId) {
+        PriceTable table = tables.get(sessionId);
+        if (table != null && table.isCurrent()) {
+            return table;
+        }
+        SessionRepository.SessionPricingView pricing = primaryReads
+                .load(() -> sessionRepository.findPricingById(sessionId))
+                .orElseThrow(() -> new ResourceNotFoundException("Session", sessionId));
+        return get(sessionId, pricing.getHallId(), pricing.getBasePrice(), pricing.getStartTime());
+    }
+
+    public void retainSessions(Collection<Long> activeSessionIds) {
+        Set<Long> active = Set.copyOf(activeSessionIds);
+        tables.keySet().removeIf(id -> !active.contains(id));
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onSessionChanged(SessionChangedEvent event) {
+        if (event.status() == SessionStatus.CANCELLED || event.status() == SessionStatus.COMPLETED) {
+            tables.remove(event.sessionId());
+        }
+    }
+
+    private PriceTable get(Long sessionId, Long hallId, BigDecimal basePrice, OffsetDateTime startTime) {
+        PriceTable table = tables.get(sessionId);
+        if (table != null && table.isCurrent()) {
+            return table;
+        }
+        return tables.compute(sessionId, (id, existing) -> existing != null && existing.isCurrent()
+                ? existing
+                : new PriceTable(hallLayoutCache, hallLayoutCache.get(hallId), basePrice, startTime));
+    }
+
+    public static final class PriceTable {
+        public static final int MINOR_UNIT_SCALE = 2;
+
+        private final HallLayoutCache hallLayoutCache;
+        private final HallLayoutCache.HallLayout layout;
+        private final long[] prices;
+        private final long startEpochMillis;
+
+        PriceTable(HallLayoutCache hallLayoutCache, HallLayoutCache.HallLayout layout, BigDecimal basePrice,
+                   OffsetDateTime startTime) {
+            this.hallLayoutCache = hallLayoutCache;
+            this.layout = layout;
+            this.startEpochMillis = startTime.toInstant().toEpochMilli();
+            this.prices = new long[layout.size()];
+            // Seats share a handful of multipliers, so each distinct price is computed once.
+            Map<BigDecimal, Long> byMultiplier = new HashMap<>();
+            for (int i = 0; i < prices.length; i++) {
+                prices[i] = byMultiplier.computeIfAbsent(layout.priceMultiplierAt(i), multiplier -> basePrice
+                        .multiply(multiplier)
+                        .setScale(MINOR_UNIT_SCALE, RoundingMode.HALF_UP)
+                        .unscaledValue()
+                        .longValueExact());
+            }
+        }
+
+        public HallLayoutCache.HallLayout getLayout() {
+            return layout;
+        }
+
+        public long getStartEpochMillis() {
+            return startEpochMillis;
+        }
+
+        public long priceAt(int ordinal) {
+            return prices[ordinal];
+        }
+
+        public static BigDecimal toAmount(long minorUnits) {
+            return BigDecimal.valueOf(minorUnits, MINOR_UNIT_SCALE);
+        }
+
+        boolean isCurrent() {
+            return hallLayoutCache.get(layout.getHallId()) == layout;
+        }
+    }
+}
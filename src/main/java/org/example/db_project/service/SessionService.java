@@ -2,44 +2,73 @@ package org.example.db_project.service;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.example.db_project.config.PrimaryReads;
 import org.example.db_project.domain.entity.Hall;
 import org.example.db_project.domain.entity.Movie;
 import org.example.db_project.domain.entity.Session;
 import org.example.db_project.domain.enums.SessionStatus;
+import org.example.db_project.domain.event.SessionChangedEvent;
+import org.example.db_project.domain.event.SessionStatusesUpdatedEvent;
 import org.example.db_project.domain.repository.HallRepository;
 import org.example.db_project.domain.repository.MovieRepository;
 import org.example.db_project.domain.repository.SessionRepository;
 import org.example.db_project.dto.request.CreateSessionRequest;
+import org.example.db_project.dto.request.ScheduleSessionsRequest;
+import org.example.db_project.dto.response.ScheduleSessionsResponse;
+import org.example.db_project.dto.response.SessionScheduleResult;
 import org.example.db_project.dto.response.SessionResponse;
 import org.example.db_project.exception.ResourceNotFoundException;
 import org.example.db_project.exception.SessionOverlapException;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
 import java.time.LocalDate;
 import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class SessionService {
+    private static final String INSERT_SESSION_SQL = """
+            INSERT INTO sessions (movie_id, hall_id, start_time, end_time, base_price, status)
+            VALUES (?, ?, ?, ?, ?, 'SCHEDULED')
+            """;
+
     private final SessionRepository sessionRepository;
     private final MovieRepository movieRepository;
     private final HallRepository hallRepository;
     private final HallService hallService;
     private final SeatService seatService;
+    private final SeatOccupancyIndex seatOccupancyIndex;
+    private final SessionPriceTables sessionPriceTables;
+    private final ScheduleCache scheduleCache;
+    private final ApplicationEventPublisher eventPublisher;
+    private final PrimaryReads primaryReads;
+    private final JdbcTemplate jdbcTemplate;
 
     @Transactional
     public SessionResponse createSession(CreateSessionRequest request) {
         log.info("Creating session for movie {} in hall {}", request.getMovieId(), request.getHallId());
         Movie movie = movieRepository.findById(request.getMovieId())
                 .orElseThrow(() -> new ResourceNotFoundException("Movie", request.getMovieId()));
-        Hall hall = hallRepository.findById(request.getHallId())
+        // The hall row lock serialises scheduling per hall, so two requests cannot both pass the overlap check.
+        Hall hall = hallRepository.findByIdWithLock(request.getHallId())
                 .orElseThrow(() -> new ResourceNotFoundException("Hall", request.getHallId()));
-        OffsetDateTime endTime = request.getStartTime()
-                .plusMinutes(movie.getDurationMinutes())
-                .plusMinutes(15);
+        OffsetDateTime endTime = endTimeFor(movie, request.getStartTime());
         List<Session> overlapping = sessionRepository.findOverlappingSessions(
                 hall.getId(), request.getStartTime(), endTime);
         if (!overlapping.isEmpty()) {
@@ -54,10 +83,97 @@ public class SessionService {
                 .status(SessionStatus.SCHEDULED)
                 .build();
         session = sessionRepository.save(session);
+        sessionPriceTables.get(session);
+        eventPublisher.publishEvent(SessionChangedEvent.of(session));
         log.info("Session created with id: {}", session.getId());
         return toResponse(session);
     }
 
+    /**
+     * Schedules many sessions at once, reporting the outcome of each. Overlaps are found in
+     * memory with an {@link IntervalTree} per hall, seeded with the existing sessions in the
+     * batch's time window by a single query; every accepted session joins its hall's tree,
+     * so later items are checked against earlier ones too. The halls are locked before the
+     * existing sessions are read. Accepted sessions are inserted with one JDBC batch.
+     */
+    @Transactional
+    public ScheduleSessionsResponse scheduleSessions(ScheduleSessionsRequest request) {
+        List<CreateSessionRequest> items = request.getSessions();
+        log.info("Scheduling {} sessions", items.size());
+        Map<Long, Movie> movies = movieRepository.findAllById(items.stream()
+                        .map(CreateSessionRequest::getMovieId)
+                        .collect(Collectors.toSet())).stream()
+                .collect(Collectors.toMap(Movie::getId, Function.identity()));
+        // Locked in id order, as in createSession, so concurrent schedules of the same halls queue up.
+        Set<Long> hallIds = hallRepository.findByIdsWithLock(items.stream()
+                        .map(CreateSessionRequest::getHallId)
+                        .collect(Collectors.toSet())).stream()
+                .map(Hall::getId)
+                .collect(Collectors.toSet());
+        SessionScheduleResult[] results = new SessionScheduleResult[items.size()];
+        OffsetDateTime[] endTimes = new OffsetDateTime[items.size()];
+        OffsetDateTime from = null;
+        OffsetDateTime to = null;
+        for (int i = 0; i < items.size(); i++) {
+            CreateSessionRequest item = items.get(i);
+            Movie movie = movies.get(item.getMovieId());
+            if (movie == null) {
+                results[i] = invalidResult(i, item, "Movie not found with id: " + item.getMovieId());
+            } else if (!hallIds.contains(item.getHallId())) {
+                results[i] = invalidResult(i, item, "Hall not found with id: " + item.getHallId());
+            } else {
+                endTimes[i] = endTimeFor(movie, item.getStartTime());
+                from = from == null || item.getStartTime().isBefore(from) ? item.getStartTime() : from;
+                to = to == null || endTimes[i].isAfter(to) ? endTimes[i] : to;
+            }
+        }
+        Map<Long, IntervalTree> hallSchedules = new HashMap<>();
+        if (from != null) {
+            for (SessionRepository.SessionSlotView slot : sessionRepository.findSessionSlotsInHalls(hallIds, from, to)) {
+                hallSchedules.computeIfAbsent(slot.getHallId(), id -> new IntervalTree())
+                        .insert(slot.getId(), toMillis(slot.getStartTime()), toMillis(slot.getEndTime()));
+            }
+        }
+        List<Integer> accepted = new ArrayList<>();
+        for (int i = 0; i < items.size(); i++) {
+            if (results[i] != null) {
+                continue;
+            }
+            CreateSessionRequest item = items.get(i);
+            IntervalTree schedule = hallSchedules.computeIfAbsent(item.getHallId(), id -> new IntervalTree());
+            long start = toMillis(item.getStartTime());
+            long end = toMillis(endTimes[i]);
+            List<IntervalTree.Interval> conflicts = schedule.findOverlapping(start, end);
+            if (conflicts.isEmpty()) {
+                // Batch items are keyed by negative ids so they never collide with session ids.
+                schedule.insert(-(i + 1L), start, end);
+                accepted.add(i);
+            } else {
+                results[i] = conflictResult(i, item, endTimes[i], conflicts);
+            }
+        }
+        List<Long> sessionIds = insertSessions(items, endTimes, accepted);
+        for (int k = 0; k < accepted.size(); k++) {
+            int i = accepted.get(k);
+            CreateSessionRequest item = items.get(i);
+            results[i] = SessionScheduleResult.builder()
+                    .index(i)
+                    .outcome(SessionScheduleResult.Outcome.CREATED)
+                    .sessionId(sessionIds.get(k))
+                    .startTime(item.getStartTime())
+                    .endTime(endTimes[i])
+                    .build();
+            eventPublisher.publishEvent(new SessionChangedEvent(sessionIds.get(k), item.getHallId(),
+                    item.getStartTime(), endTimes[i], SessionStatus.SCHEDULED));
+        }
+        log.info("Scheduled {} of {} sessions", accepted.size(), items.size());
+        return ScheduleSessionsResponse.builder()
+                .created(accepted.size())
+                .rejected(items.size() - accepted.size())
+                .results(List.of(results))
+                .build();
+    }
+
     @Transactional(readOnly = true)
     public SessionResponse getSessionById(Long id) {
         Session session = sessionRepository.findByIdWithDetails(id)
@@ -65,19 +181,17 @@ public class SessionService {
         return toResponse(session);
     }
 
-    @Transactional(readOnly = true)
     public List<SessionResponse> getScheduleForDate(LocalDate date) {
-        return sessionRepository.findByDateAndStatus(date, SessionStatus.SCHEDULED)
-                .stream()
-                .map(this::toResponse)
-                .toList();
+        // The day's bounds come from the cache's zone, so loading and eviction agree on the day.
+        OffsetDateTime from = date.atStartOfDay(scheduleCache.getZone()).toOffsetDateTime();
+        OffsetDateTime to = date.plusDays(1).atStartOfDay(scheduleCache.getZone()).toOffsetDateTime();
+        return scheduleCache.get(date, () -> primaryReads.load(() -> toResponses(
+                sessionRepository.findStartingBetweenWithStatus(from, to, SessionStatus.SCHEDULED))));
     }
 
+    @Transactional(readOnly = true)
     public List<SessionResponse> getUpcomingSessionsForMovie(Long movieId) {
-        return sessionRepository.findUpcomingSessionsForMovie(movieId)
-                .stream()
-                .map(this::toResponse)
-                .toList();
+        return toResponses(sessionRepository.findUpcomingSessionsForMovie(movieId));
     }
 
     @Transactional
@@ -89,6 +203,8 @@ public class SessionService {
             throw new IllegalStateException("Cannot cancel session that has already started");
         }
         sessionRepository.updateStatus(id, SessionStatus.CANCELLED);
+        eventPublisher.publishEvent(new SessionChangedEvent(id, session.getHall().getId(),
+                session.getStartTime(), session.getEndTime(), SessionStatus.CANCELLED));
         log.info("Session cancelled: {}", id);
     }
 
@@ -96,13 +212,123 @@ public class SessionService {
     public int updateSessionStatuses() {
         int ongoing = sessionRepository.updateOngoingSessions();
         int completed = sessionRepository.updateCompletedSessions();
+        if (completed > 0) {
+            List<Long> activeSessionIds = sessionRepository.findActiveSessionIds();
+            seatOccupancyIndex.retainSessions(activeSessionIds);
+            sessionPriceTables.retainSessions(activeSessionIds);
+        }
+        if (ongoing + completed > 0) {
+            eventPublisher.publishEvent(new SessionStatusesUpdatedEvent(ongoing, completed));
+        }
         log.info("Updated {} sessions to ONGOING, {} to COMPLETED", ongoing, completed);
         return ongoing + completed;
     }
 
+    /**
+     * Moves one session to ONGOING or COMPLETED if its start or end time has passed.
+     *
+     * @return whether the session changed
+     */
+    @Transactional
+    public boolean transitionSession(Long sessionId, SessionStatus status) {
+        Session session = sessionRepository.findById(sessionId).orElse(null);
+        if (session == null) {
+            return false;
+        }
+        OffsetDateTime now = OffsetDateTime.now();
+        int updated = switch (status) {
+            case ONGOING -> sessionRepository.startSession(sessionId, now);
+            case COMPLETED -> sessionRepository.completeSession(sessionId, now);
+            default -> throw new IllegalArgumentException("Sessions do not move to " + status + " on a timer");
+        };
+        if (updated == 0) {
+            return false;
+        }
+        eventPublisher.publishEvent(new SessionChangedEvent(sessionId, session.getHall().getId(),
+                session.getStartTime(), session.getEndTime(), status));
+        log.debug("Session {} is now {}", sessionId, status);
+        return true;
+    }
+
+    private List<Long> insertSessions(List<CreateSessionRequest> items, OffsetDateTime[] endTimes,
+                                      List<Integer> accepted) {
+        if (accepted.isEmpty()) {
+            return List.of();
+        }
+        KeyHolder keys = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(con -> con.prepareStatement(INSERT_SESSION_SQL, new String[]{"id"}),
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int k) throws SQLException {
+                        int i = accepted.get(k);
+                        CreateSessionRequest item = items.get(i);
+                        ps.setLong(1, item.getMovieId());
+                        ps.setLong(2, item.getHallId());
+                        ps.setObject(3, item.getStartTime());
+                        ps.setObject(4, endTimes[i]);
+                        ps.setBigDecimal(5, item.getBasePrice());
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return accepted.size();
+                    }
+                }, keys);
+        return keys.getKeyList().stream()
+                .map(key -> ((Number) key.get("id")).longValue())
+                .toList();
+    }
+
+    private static SessionScheduleResult invalidResult(int index, CreateSessionRequest item, String message) {
+        return SessionScheduleResult.builder()
+                .index(index)
+                .outcome(SessionScheduleResult.Outcome.INVALID)
+                .startTime(item.getStartTime())
+                .message(message)
+                .build();
+    }
+
+    private static SessionScheduleResult conflictResult(int index, CreateSessionRequest item, OffsetDateTime endTime,
+                                                        List<IntervalTree.Interval> conflicts) {
+        return SessionScheduleResult.builder()
+                .index(index)
+                .outcome(SessionScheduleResult.Outcome.CONFLICT)
+                .startTime(item.getStartTime())
+                .endTime(endTime)
+                .conflictingSessionIds(conflicts.stream()
+                        .filter(conflict -> conflict.id() > 0)
+                        .map(IntervalTree.Interval::id)
+                        .toList())
+                .conflictingIndexes(conflicts.stream()
+                        .filter(conflict -> conflict.id() < 0)
+                        .map(conflict -> (int) (-conflict.id() - 1))
+                        .toList())
+                .message("Hall " + item.getHallId() + " is already booked during this time slot")
+                .build();
+    }
+
+    private static OffsetDateTime endTimeFor(Movie movie, OffsetDateTime startTime) {
+        return startTime
+                .plusMinutes(movie.getDurationMinutes())
+                .plusMinutes(15);
+    }
+
+    private static long toMillis(OffsetDateTime time) {
+        return time.toInstant().toEpochMilli();
+    }
+
+    private List<SessionResponse> toResponses(List<Session> sessions) {
+        Map<Long, Integer> availableSeats = seatService.countAvailableSeats(sessions);
+        return sessions.stream()
+                .map(session -> toResponse(session, availableSeats.get(session.getId())))
+                .toList();
+    }
+
     private SessionResponse toResponse(Session session) {
-        int availableSeats = seatService.countAvailableSeats(
-                session.getHall().getId(), session.getId());
+        return toResponse(session, seatService.countAvailableSeats(session.getHall().getId(), session.getId()));
+    }
+
+    private SessionResponse toResponse(Session session, Integer availableSeats) {
         return SessionResponse.builder()
                 .id(session.getId())
                 .movie(MovieService_toSimpleResponse(session.getMovie()))
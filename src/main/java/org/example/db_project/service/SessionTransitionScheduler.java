@@ -0,0 +1,152 @@
+package org.example.db_project.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.example.db_project.config.PrimaryReads;
+import org.example.db_project.domain.enums.SessionStatus;
+import org.example.db_project.domain.event.CachesStaleEvent;
+import org.example.db_project.domain.event.SessionChangedEvent;
+import org.example.db_project.domain.repository.SessionRepository;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Moves each session to ONGOING at its start time and to COMPLETED at its end time. The
+ * start and end instants of SCHEDULED and ONGOING sessions wait in a delay queue, which is
+ * rebuilt from {@link SessionRepository} on startup and kept current from committed
+ * {@link SessionChangedEvent}s. Every instant fires a single-row transition through
+ * {@link SessionService#transitionSession}; the periodic status sweep is only a safety net.
+ */
+@Service
+@Slf4j
+public class SessionTransitionScheduler {
+    private static final Duration RETRY_DELAY = Duration.ofSeconds(5);
+
+    private final SessionRepository sessionRepository;
+    private final SessionService sessionService;
+    private final PrimaryReads primaryReads;
+    private final DelayQueue<Transition> queue = new DelayQueue<>();
+    private final ConcurrentMap<Long, SessionTimes> sessions = new ConcurrentHashMap<>();
+    private final Timer lag;
+    private Thread worker;
+
+    public SessionTransitionScheduler(SessionRepository sessionRepository,
+                                      SessionService sessionService,
+                                      PrimaryReads primaryReads,
+                                      MeterRegistry meterRegistry) {
+        this.sessionRepository = sessionRepository;
+        this.sessionService = sessionService;
+        this.primaryReads = primaryReads;
+        this.lag = Timer.builder("session.transition.lag")
+                .description("Delay between a session's start or end time and its status change")
+                .register(meterRegistry);
+        Gauge.builder("session.transition.scheduled", sessions, ConcurrentMap::size).register(meterRegistry);
+    }
+
+    public int getScheduledSessionCount() {
+        return sessions.size();
+    }
+
+    @EventListener({ApplicationReadyEvent.class, CachesStaleEvent.class})
+    public void restoreTransitions() {
+        var unfinished = primaryReads.load(sessionRepository::findUnfinishedSessionTimes);
+        unfinished.forEach(session ->
+                schedule(session.getId(), session.getStatus(), session.getStartTime(), session.getEndTime()));
+        log.info("Scheduled status transitions of {} sessions", unfinished.size());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onSessionChanged(SessionChangedEvent event) {
+        schedule(event.sessionId(), event.status(), event.startTime(), event.endTime());
+    }
+
+    @PostConstruct
+    void start() {
+        worker = Thread.ofPlatform()
+                .name("session-transitions")
+                .daemon()
+                .start(this::runTransitions);
+    }
+
+    @PreDestroy
+    void stop() {
+        worker.interrupt();
+    }
+
+    private void schedule(Long sessionId, SessionStatus status, OffsetDateTime startTime, OffsetDateTime endTime) {
+        switch (status) {
+            case SCHEDULED -> {
+                SessionTimes times = new SessionTimes(startTime.toInstant(), endTime.toInstant());
+                sessions.put(sessionId, times);
+                queue.offer(new Transition(sessionId, SessionStatus.ONGOING, times.start(), times));
+                queue.offer(new Transition(sessionId, SessionStatus.COMPLETED, times.end(), times));
+            }
+            case ONGOING -> {
+                SessionTimes times = new SessionTimes(startTime.toInstant(), endTime.toInstant());
+                sessions.put(sessionId, times);
+                queue.offer(new Transition(sessionId, SessionStatus.COMPLETED, times.end(), times));
+            }
+            default -> sessions.remove(sessionId);
+        }
+    }
+
+    private void runTransitions() {
+        while (!Thread.currentThread().isInterrupted()) {
+            Transition transition;
+            try {
+                transition = queue.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            if (sessions.get(transition.sessionId()) != transition.times()) {
+                // rescheduled or finished since it was queued
+                continue;
+            }
+            try {
+                if (sessionService.transitionSession(transition.sessionId(), transition.status())) {
+                    lag.record(Duration.between(transition.at(), Instant.now()));
+                }
+                if (transition.status() == SessionStatus.COMPLETED) {
+                    sessions.remove(transition.sessionId(), transition.times());
+                }
+            } catch (RuntimeException e) {
+                log.error("Failed to move session {} to {}, retrying in {}",
+                        transition.sessionId(), transition.status(), RETRY_DELAY, e);
+                queue.offer(new Transition(transition.sessionId(), transition.status(),
+                        Instant.now().plus(RETRY_DELAY), transition.times()));
+            }
+        }
+    }
+
+    private record SessionTimes(Instant start, Instant end) {
+    }
+
+    private record Transition(Long sessionId, SessionStatus status, Instant at, SessionTimes times) implements Delayed {
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(Duration.between(Instant.now(), at));
+        }
+
+        @Override
+        public int compareTo(Delayed other) {
+            return at.compareTo(((Transition) other).at);
+        }
+    }
+}
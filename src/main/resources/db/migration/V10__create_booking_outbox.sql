@@ -0,0 +1,11 @@
+CREATE TABLE booking_outbox
+(
+    id          BIGSERIAL PRIMARY KEY,
+    booking_id  BIGINT      NOT NULL,
+    session_id  BIGINT      NOT NULL,
+    from_status VARCHAR(20),
+    to_status   VARCHAR(20) NOT NULL,
+    created_at  TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE INDEX idx_booking_outbox_booking ON booking_outbox (booking_id, id);
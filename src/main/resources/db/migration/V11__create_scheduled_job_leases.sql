@@ -0,0 +1,7 @@
+CREATE TABLE scheduled_job_leases
+(
+    job_name     VARCHAR(100) PRIMARY KEY,
+    owner        VARCHAR(255) NOT NULL,
+    locked_at    TIMESTAMP WITH TIME ZONE NOT NULL,
+    locked_until TIMESTAMP WITH TIME ZONE NOT NULL
+);
@@ -0,0 +1,17 @@
+CREATE TABLE session_seat_reservations
+(
+    session_id BIGINT NOT NULL REFERENCES sessions (id) ON DELETE CASCADE,
+    seat_id    BIGINT NOT NULL REFERENCES seats (id),
+    booking_id BIGINT NOT NULL REFERENCES bookings (id) ON DELETE CASCADE,
+    created_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (session_id, seat_id)
+);
+
+CREATE INDEX idx_session_seat_reservations_booking ON session_seat_reservations (booking_id);
+
+INSERT INTO session_seat_reservations (session_id, seat_id, booking_id)
+SELECT DISTINCT ON (b.session_id, bs.seat_id) b.session_id, bs.seat_id, b.id
+FROM booking_seats bs
+JOIN bookings b ON bs.booking_id = b.id
+WHERE b.status NOT IN ('CANCELLED', 'EXPIRED')
+ORDER BY b.session_id, bs.seat_id, b.created_at;
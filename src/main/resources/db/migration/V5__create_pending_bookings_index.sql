@@ -0,0 +1 @@
+CREATE INDEX idx_bookings_pending_created ON bookings (created_at, id) WHERE status = 'PENDING';
@@ -0,0 +1,38 @@
+CREATE TABLE daily_movie_revenue
+(
+    revenue_date   DATE           NOT NULL,
+    movie_id       BIGINT         NOT NULL REFERENCES movies (id) ON DELETE CASCADE,
+    bookings_count BIGINT         NOT NULL DEFAULT 0,
+    tickets_sold   BIGINT         NOT NULL DEFAULT 0,
+    revenue        DECIMAL(14, 2) NOT NULL DEFAULT 0,
+    PRIMARY KEY (revenue_date, movie_id)
+);
+
+CREATE TABLE daily_hall_type_revenue
+(
+    revenue_date   DATE           NOT NULL,
+    hall_type      VARCHAR(20)    NOT NULL,
+    bookings_count BIGINT         NOT NULL DEFAULT 0,
+    tickets_sold   BIGINT         NOT NULL DEFAULT 0,
+    revenue        DECIMAL(14, 2) NOT NULL DEFAULT 0,
+    PRIMARY KEY (revenue_date, hall_type)
+);
+
+CREATE INDEX idx_daily_movie_revenue_movie ON daily_movie_revenue (movie_id);
+
+INSERT INTO daily_movie_revenue (revenue_date, movie_id, bookings_count, tickets_sold, revenue)
+SELECT DATE(b.created_at), s.movie_id, COUNT(*), SUM(t.tickets), SUM(b.total_price)
+FROM bookings b
+JOIN sessions s ON b.session_id = s.id
+CROSS JOIN LATERAL (SELECT COUNT(*) AS tickets FROM booking_seats bs WHERE bs.booking_id = b.id) t
+WHERE b.status = 'COMPLETED'
+GROUP BY DATE(b.created_at), s.movie_id;
+
+INSERT INTO daily_hall_type_revenue (revenue_date, hall_type, bookings_count, tickets_sold, revenue)
+SELECT DATE(b.created_at), h.hall_type, COUNT(*), SUM(t.tickets), SUM(b.total_price)
+FROM bookings b
+JOIN sessions s ON b.session_id = s.id
+JOIN halls h ON s.hall_id = h.id
+CROSS JOIN LATERAL (SELECT COUNT(*) AS tickets FROM booking_seats bs WHERE bs.booking_id = b.id) t
+WHERE b.status = 'COMPLETED'
+GROUP BY DATE(b.created_at), h.hall_type;
@@ -0,0 +1 @@
+CREATE INDEX idx_bookings_created_at ON bookings (created_at, id);
@@ -0,0 +1,2 @@
+CREATE INDEX idx_bookings_user_history ON bookings (user_id, created_at DESC, id DESC)
+    INCLUDE (session_id, status, total_price);
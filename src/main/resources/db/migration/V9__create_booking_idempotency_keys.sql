@@ -0,0 +1,9 @@
+CREATE TABLE booking_idempotency_keys
+(
+    idempotency_key VARCHAR(255) PRIMARY KEY,
+    request_hash    CHAR(64)     NOT NULL,
+    booking_id      BIGINT REFERENCES bookings (id) ON DELETE CASCADE,
+    created_at      TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE INDEX idx_booking_idempotency_keys_created_at ON booking_idempotency_keys (created_at);
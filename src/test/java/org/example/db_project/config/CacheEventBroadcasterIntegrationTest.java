@@ -0,0 +1,185 @@
+package org.example.db_project.config;
+
+import org.example.db_project.BaseIntegrationTest;
+import org.example.db_project.domain.entity.Seat;
+import org.example.db_project.domain.entity.Session;
+import org.example.db_project.domain.event.SeatAvailabilityChangedEvent;
+import org.example.db_project.domain.event.SessionStatusesUpdatedEvent;
+import org.example.db_project.domain.repository.SeatRepository;
+import org.example.db_project.domain.repository.SessionRepository;
+import org.example.db_project.service.SeatOccupancyIndex;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BooleanSupplier;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.*;
+
+class CacheEventBroadcasterIntegrationTest extends BaseIntegrationTest {
+    @Autowired
+    private CacheEventBroadcaster cacheEventBroadcaster;
+    @Autowired
+    private SeatOccupancyIndex seatOccupancyIndex;
+    @Autowired
+    private SessionRepository sessionRepository;
+    @Autowired
+    private SeatRepository seatRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    @Autowired
+    private DataSourceProperties dataSourceProperties;
+
+    @Test
+    @DisplayName("Should apply seat changes committed on another instance")
+    void shouldApplyEventsFromOtherInstances() throws Exception {
+        Session session = sessionRepository.findAll().stream().findFirst().orElseThrow();
+        Long hallId = session.getHall().getId();
+        Seat seat = seatRepository.findByHallIdOrdered(hallId).get(0);
+        seatOccupancyIndex.evict(session.getId());
+        int available = seatOccupancyIndex.countAvailableSeats(hallId, session.getId());
+        boolean booked = seatOccupancyIndex.getOccupancy(hallId, session.getId()).isBooked(seat.getId());
+
+        jdbcTemplate.query("SELECT pg_notify(?, ?)", rs -> null, CacheEventBroadcaster.CHANNEL,
+                "{\"node\":\"other\",\"type\":\"seats\",\"event\":{\"sessionId\":" + session.getId()
+                        + ",\"seatIds\":[" + seat.getId() + "],\"booked\":" + !booked + "}}");
+
+        try {
+            int expected = booked ? available + 1 : available - 1;
+            awaitCondition(() -> seatOccupancyIndex.countAvailableSeats(hallId, session.getId()) == expected,
+                    Duration.ofSeconds(5));
+        } finally {
+            seatOccupancyIndex.evict(session.getId());
+        }
+    }
+
+    @Test
+    @DisplayName("Should notify other instances only of committed changes")
+    void shouldNotifyOnlyCommittedChanges() throws Exception {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        try (Connection connection = DriverManager.getConnection(dataSourceProperties.determineUrl(),
+                dataSourceProperties.determineUsername(), dataSourceProperties.determinePassword())) {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("LISTEN " + CacheEventBroadcaster.CHANNEL);
+            }
+
+            transaction.executeWithoutResult(status -> {
+                eventPublisher.publishEvent(new SessionStatusesUpdatedEvent(0, 9001));
+                status.setRollbackOnly();
+            });
+            transaction.executeWithoutResult(status ->
+                    eventPublisher.publishEvent(new SessionStatusesUpdatedEvent(9002, 0)));
+
+            List<String> payloads = new ArrayList<>();
+            long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+            while (payloads.stream().noneMatch(payload -> payload.contains("9002")) && System.nanoTime() < deadline) {
+                PGNotification[] notifications = connection.unwrap(PGConnection.class).getNotifications(500);
+                if (notifications != null) {
+                    for (PGNotification notification : notifications) {
+                        payloads.add(notification.getParameter());
+                    }
+                }
+            }
+            assertThat(payloads).filteredOn(payload -> payload.contains("9002")).singleElement()
+                    .satisfies(payload -> assertThat(payload).contains(cacheEventBroadcaster.getNodeId()));
+            assertThat(payloads).noneMatch(payload -> payload.contains("9001"));
+        }
+    }
+
+    @Test
+    @DisplayName("Should split seat changes into notifications that fit the payload limit")
+    void shouldSplitLargeSeatChanges() throws Exception {
+        List<Long> seatIds = LongStream.range(0, 1000).map(i -> Long.MAX_VALUE - i).boxed().toList();
+        try (Connection connection = DriverManager.getConnection(dataSourceProperties.determineUrl(),
+                dataSourceProperties.determineUsername(), dataSourceProperties.determinePassword())) {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("LISTEN " + CacheEventBroadcaster.CHANNEL);
+            }
+
+            eventPublisher.publishEvent(SeatAvailabilityChangedEvent.booked(-1L, seatIds));
+
+            List<String> payloads = new ArrayList<>();
+            long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+            while (countSeatIds(payloads) < seatIds.size() && System.nanoTime() < deadline) {
+                PGNotification[] notifications = connection.unwrap(PGConnection.class).getNotifications(500);
+                if (notifications != null) {
+                    for (PGNotification notification : notifications) {
+                        if (notification.getParameter().contains("\"sessionId\":-1,")) {
+                            payloads.add(notification.getParameter());
+                        }
+                    }
+                }
+            }
+            assertThat(countSeatIds(payloads)).isEqualTo(seatIds.size());
+            assertThat(payloads).hasSizeGreaterThan(2)
+                    .allSatisfy(payload -> assertThat(payload.getBytes(StandardCharsets.UTF_8).length)
+                            .isLessThan(8000));
+        }
+    }
+
+    @Test
+    @DisplayName("Should reload caches and keep applying other instances' changes after reconnecting")
+    void shouldReconnectAfterLosingConnection() throws Exception {
+        Session session = sessionRepository.findAll().stream().findFirst().orElseThrow();
+        Long hallId = session.getHall().getId();
+        Seat seat = seatRepository.findByHallIdOrdered(hallId).get(0);
+        seatOccupancyIndex.getOccupancy(hallId, session.getId());
+
+        jdbcTemplate.queryForList("""
+                SELECT pg_terminate_backend(pid) FROM pg_stat_activity
+                WHERE query = 'LISTEN %s' AND pid <> pg_backend_pid()
+                """.formatted(CacheEventBroadcaster.CHANNEL));
+
+        try {
+            awaitCondition(() -> !seatOccupancyIndex.isLoaded(session.getId()), Duration.ofSeconds(15));
+            int available = seatOccupancyIndex.countAvailableSeats(hallId, session.getId());
+            boolean booked = seatOccupancyIndex.getOccupancy(hallId, session.getId()).isBooked(seat.getId());
+
+            jdbcTemplate.query("SELECT pg_notify(?, ?)", rs -> null, CacheEventBroadcaster.CHANNEL,
+                    "{\"node\":\"other\",\"type\":\"seats\",\"event\":{\"sessionId\":" + session.getId()
+                            + ",\"seatIds\":[" + seat.getId() + "],\"booked\":" + !booked + "}}");
+
+            int expected = booked ? available + 1 : available - 1;
+            awaitCondition(() -> seatOccupancyIndex.countAvailableSeats(hallId, session.getId()) == expected,
+                    Duration.ofSeconds(5));
+        } finally {
+            seatOccupancyIndex.evict(session.getId());
+        }
+    }
+
+    private static int countSeatIds(List<String> payloads) {
+        return payloads.stream()
+                .mapToInt(payload -> payload.substring(payload.indexOf('[') + 1, payload.indexOf(']')).split(",").length)
+                .sum();
+    }
+
+    private static void awaitCondition(BooleanSupplier condition, Duration timeout)
+            throws InterruptedException {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        while (!condition.getAsBoolean()) {
+            if (System.nanoTime() > deadline) {
+                fail("Condition not met within " + timeout);
+            }
+            Thread.sleep(100);
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package org.example.db_project.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.example.db_project.BaseIntegrationTest;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLTransientConnectionException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.*;
+
+@TestPropertySource(properties = {
+        "spring.threads.virtual.enabled=true",
+        "datasource.admission.enabled=true",
+        "datasource.admission.permits=2",
+        "datasource.admission.timeout=PT3S"
+})
+class DataSourceAdmissionIntegrationTest extends BaseIntegrationTest {
+    @Autowired
+    private DataSource dataSource;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    @DisplayName("Should admit many virtual threads through a small number of permits")
+    void shouldQueueVirtualThreadsForPermits() throws Exception {
+        AdmissionControlledDataSource admission = dataSource.unwrap(AdmissionControlledDataSource.class);
+        List<Future<Integer>> results = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < 200; i++) {
+                results.add(executor.submit(() -> jdbcTemplate.queryForObject("SELECT 1", Integer.class)));
+            }
+        }
+        for (Future<Integer> result : results) {
+            assertThat(result.get()).isEqualTo(1);
+        }
+        assertThat(admission.getInUse()).isZero();
+        assertThat(admission.getRejectedCount()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should time out when all permits are held")
+    void shouldTimeOutWhenPermitsAreExhausted() throws Exception {
+        AdmissionControlledDataSource admission = dataSource.unwrap(AdmissionControlledDataSource.class);
+        try (Connection first = dataSource.getConnection(); Connection second = dataSource.getConnection()) {
+            assertThat(admission.getInUse()).isEqualTo(2);
+            assertThatThrownBy(dataSource::getConnection).isInstanceOf(SQLTransientConnectionException.class);
+        }
+        assertThat(admission.getInUse()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should tag admission metrics with the pool they belong to")
+    void shouldBindAdmissionMetricsPerPool() throws Exception {
+        AdmissionControlledDataSource admission = dataSource.unwrap(AdmissionControlledDataSource.class);
+        try (Connection connection = dataSource.getConnection()) {
+            assertThat(meterRegistry.get("datasource.admission.in.use").tag("pool", "dataSource").gauge().value())
+                    .isEqualTo(admission.getInUse());
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package org.example.db_project.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.example.db_project.BaseIntegrationTest;
+import org.example.db_project.PostgresTestContainer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.filter.OncePerRequestFilter;
+import jakarta.servlet.http.Cookie;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+class ReadWriteRoutingIntegrationTest extends BaseIntegrationTest {
+    private static final String REPLICA_APPLICATION_NAME = "cinema-replica";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    @Autowired
+    private MeterRegistry meterRegistry;
+    @Autowired
+    private PrimaryReads primaryReads;
+    @Autowired
+    private OncePerRequestFilter readYourWritesFilter;
+
+    @DynamicPropertySource
+    static void configureReplica(DynamicPropertyRegistry registry) {
+        String primaryUrl = PostgresTestContainer.getInstance().getJdbcUrl();
+        registry.add("datasource.replica.url", () -> primaryUrl
+                + (primaryUrl.contains("?") ? "&" : "?")
+                + "ApplicationName=" + REPLICA_APPLICATION_NAME);
+        registry.add("datasource.replica.hikari.maximum-pool-size", () -> "2");
+    }
+
+    @AfterEach
+    void tearDown() {
+        ReadYourWrites.clear();
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    @DisplayName("Should route read-only transactions to the replica and writes to the primary")
+    void shouldRouteByTransactionReadOnlyFlag() {
+        double replicaReads = routeCount("replica", "read");
+        assertThat(applicationName(true)).isEqualTo(REPLICA_APPLICATION_NAME);
+        assertThat(applicationName(false)).isNotEqualTo(REPLICA_APPLICATION_NAME);
+        assertThat(routeCount("replica", "read")).isEqualTo(replicaReads + 1);
+    }
+
+    @Test
+    @DisplayName("Should keep read-only transactions on the primary once the request has written")
+    void shouldReadFromPrimaryWhenPinned() {
+        double pinnedReads = routeCount("primary", "pinned-read");
+        ReadYourWrites.pin();
+        assertThat(applicationName(true)).isNotEqualTo(REPLICA_APPLICATION_NAME);
+        assertThat(routeCount("primary", "pinned-read")).isEqualTo(pinnedReads + 1);
+    }
+
+    @Test
+    @DisplayName("Should run cache loads on the primary, also from read-only transactions")
+    void shouldLoadCachesFromPrimary() {
+        TransactionTemplate readOnly = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        readOnly.setReadOnly(true);
+
+        assertThat(primaryReads.load(this::currentApplicationName)).isNotEqualTo(REPLICA_APPLICATION_NAME);
+        List<String> names = readOnly.execute(status ->
+                List.of(currentApplicationName(), primaryReads.load(this::currentApplicationName)));
+        assertThat(names).containsExactly(REPLICA_APPLICATION_NAME, applicationName(false));
+    }
+
+    private String currentApplicationName() {
+        return jdbcTemplate.queryForObject("SELECT current_setting('application_name')", String.class);
+    }
+
+    @Test
+    @DisplayName("Should keep the client on the primary for its requests after a write")
+    void shouldPinFollowUpRequestsAfterWrite() throws Exception {
+        MockHttpServletResponse writeResponse = new MockHttpServletResponse();
+        RequestContextHolder.setRequestAttributes(
+                new ServletRequestAttributes(new MockHttpServletRequest("POST", "/api/bookings"), writeResponse));
+        applicationName(false);
+        RequestContextHolder.resetRequestAttributes();
+        ReadYourWrites.clear();
+        Cookie cookie = writeResponse.getCookie(DataSourceRoutingConfig.READ_YOUR_WRITES_COOKIE);
+        assertThat(cookie).isNotNull();
+
+        MockHttpServletRequest followUp = new MockHttpServletRequest("GET", "/api/bookings/1");
+        followUp.setCookies(cookie);
+        List<String> names = new ArrayList<>();
+        readYourWritesFilter.doFilter(followUp, new MockHttpServletResponse(),
+                (request, response) -> names.add(applicationName(true)));
+
+        assertThat(names).singleElement().isNotEqualTo(REPLICA_APPLICATION_NAME);
+        assertThat(applicationName(true)).isEqualTo(REPLICA_APPLICATION_NAME);
+    }
+
+    private String applicationName(boolean readOnly) {
+        TransactionTemplate template = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        template.setReadOnly(readOnly);
+        return template.execute(status ->
+                jdbcTemplate.queryForObject("SELECT current_setting('application_name')", String.class));
+    }
+
+    private double routeCount(String target, String kind) {
+        return meterRegistry.get("datasource.route").tag("target", target).tag("kind", kind).counter().count();
+    }
+}
@@ -0,0 +1,101 @@
+package org.example.db_project.config;
+
+import org.example.db_project.BaseIntegrationTest;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.*;
+
+class ScheduledJobRunnerIntegrationTest extends BaseIntegrationTest {
+    private static final Duration AT_MOST = Duration.ofMinutes(5);
+    private static final Duration AT_LEAST = Duration.ofMinutes(1);
+
+    @Autowired
+    private ScheduledJobRunner jobRunner;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    @DisplayName("Should run a job once per lease")
+    void shouldRunJobOncePerLease() {
+        String job = uniqueJob();
+        AtomicInteger runs = new AtomicInteger();
+
+        assertThat(jobRunner.run(job, AT_MOST, AT_LEAST, runs::incrementAndGet)).isTrue();
+        assertThat(jobRunner.run(job, AT_MOST, AT_LEAST, runs::incrementAndGet)).isFalse();
+        assertThat(runs).hasValue(1);
+    }
+
+    @Test
+    @DisplayName("Should run a job on one instance when ticks coincide")
+    void shouldRunJobOnOneInstanceWhenTicksCoincide() throws Exception {
+        String job = uniqueJob();
+        AtomicInteger runs = new AtomicInteger();
+        int instances = 4;
+        ExecutorService executor = Executors.newFixedThreadPool(instances);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Boolean>> results = new ArrayList<>();
+        for (int i = 0; i < instances; i++) {
+            results.add(executor.submit(() -> {
+                start.await();
+                return jobRunner.run(job, AT_MOST, AT_LEAST, runs::incrementAndGet);
+            }));
+        }
+        start.countDown();
+        int ran = 0;
+        for (Future<Boolean> result : results) {
+            ran += result.get() ? 1 : 0;
+        }
+        executor.shutdown();
+
+        assertThat(ran).isEqualTo(1);
+        assertThat(runs).hasValue(1);
+    }
+
+    @Test
+    @DisplayName("Should take over the lease of an instance that stopped renewing it")
+    void shouldTakeOverExpiredLease() {
+        String job = uniqueJob();
+        jdbcTemplate.update("""
+                INSERT INTO scheduled_job_leases (job_name, owner, locked_at, locked_until)
+                VALUES (?, 'crashed-node', now() - interval '10 minutes', now() - interval '5 minutes')
+                """, job);
+        AtomicInteger runs = new AtomicInteger();
+
+        assertThat(jobRunner.run(job, AT_MOST, AT_LEAST, runs::incrementAndGet)).isTrue();
+        assertThat(runs).hasValue(1);
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT owner FROM scheduled_job_leases WHERE job_name = ?", String.class, job))
+                .isEqualTo(jobRunner.getOwner());
+    }
+
+    @Test
+    @DisplayName("Should skip a job whose lease is held by another instance")
+    void shouldSkipJobLeasedByAnotherInstance() {
+        String job = uniqueJob();
+        jdbcTemplate.update("""
+                INSERT INTO scheduled_job_leases (job_name, owner, locked_at, locked_until)
+                VALUES (?, 'other-node', now(), now() + interval '5 minutes')
+                """, job);
+        AtomicInteger runs = new AtomicInteger();
+
+        assertThat(jobRunner.run(job, AT_MOST, AT_LEAST, runs::incrementAndGet)).isFalse();
+        assertThat(runs).hasValue(0);
+    }
+
+    private static String uniqueJob() {
+        return "test-job-" + UUID.randomUUID();
+    }
+}
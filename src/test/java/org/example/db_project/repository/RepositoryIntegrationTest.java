@@ -70,15 +70,6 @@ class RepositoryIntegrationTest extends BaseIntegrationTest {
         }
     }
 
-    @Test
-    @DisplayName("Should find available halls for time slot")
-    void shouldFindAvailableHallsForTimeSlot() {
-        OffsetDateTime start = OffsetDateTime.now().plusDays(10);
-        OffsetDateTime end = start.plusHours(3);
-        List<Hall> halls = hallRepository.findAvailableHalls(start, end);
-        assertThat(halls).isNotEmpty();
-    }
-
     @Test
     @DisplayName("Should find overlapping sessions")
     void shouldFindOverlappingSessions() {
@@ -116,8 +107,9 @@ class RepositoryIntegrationTest extends BaseIntegrationTest {
                 .basePrice(new BigDecimal("10.00"))
                 .status(SessionStatus.SCHEDULED)
                 .build());
-        int availableSeats = seatRepository.countAvailableSeatsForSession(
-                hall.getId(), session.getId());
-        assertThat(availableSeats).isEqualTo(hall.getCapacity());
+        List<SeatRepository.SessionAvailabilityView> availability =
+                seatRepository.countAvailableSeatsForSessions(List.of(session.getId()));
+        assertThat(availability).singleElement()
+                .satisfies(row -> assertThat(row.getAvailableSeats()).isEqualTo((long) hall.getCapacity()));
     }
 }
@@ -1,16 +1,24 @@
 package org.example.db_project.service;
 
 import org.example.db_project.BaseIntegrationTest;
+import org.example.db_project.config.SchedulingConfig;
 import org.example.db_project.domain.entity.*;
 import org.example.db_project.domain.enums.*;
 import org.example.db_project.domain.repository.*;
+import org.example.db_project.dto.request.CreateBookingRequest;
+import org.example.db_project.dto.request.UpdateBookingStatusRequest;
+import org.example.db_project.dto.response.BookingResponse;
+import org.example.db_project.dto.response.DailyRevenueResponse;
 import org.example.db_project.dto.response.MovieRevenueResponse;
+import org.example.db_project.dto.response.SessionOccupancyResponse;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.time.OffsetDateTime;
 import java.util.List;
 
@@ -20,6 +28,8 @@ class AnalyticsServiceIntegrationTest extends BaseIntegrationTest {
     @Autowired
     private AnalyticsService analyticsService;
     @Autowired
+    private BookingOutboxRelay bookingOutboxRelay;
+    @Autowired
     private BookingRepository bookingRepository;
     @Autowired
     private BookingSeatRepository bookingSeatRepository;
@@ -33,6 +43,14 @@ class AnalyticsServiceIntegrationTest extends BaseIntegrationTest {
     private SeatRepository seatRepository;
     @Autowired
     private UserRepository userRepository;
+    @Autowired
+    private BookingService bookingService;
+    @Autowired
+    private RevenueRollupService revenueRollupService;
+    @Autowired
+    private SchedulingConfig schedulingConfig;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
 
     @BeforeEach
     void setUp() {
@@ -94,8 +112,9 @@ class AnalyticsServiceIntegrationTest extends BaseIntegrationTest {
                 .basePrice(new BigDecimal("15.00"))
                 .status(SessionStatus.SCHEDULED)
                 .build());
-        List<Object[]> results = analyticsService.getSessionOccupancyStats();
+        List<SessionOccupancyResponse> results = analyticsService.getSessionOccupancyStats();
         assertThat(results).isNotEmpty();
+        assertThat(results).allSatisfy(stats -> assertThat(stats.getOccupancyPercent()).isNotNull());
     }
 
     @Test
@@ -105,4 +124,59 @@ class AnalyticsServiceIntegrationTest extends BaseIntegrationTest {
         List<MovieRevenueResponse> results = analyticsService.getTopMoviesByRevenue(5);
         assertThat(results).isNotEmpty();
     }
+
+    @Test
+    @DisplayName("Should serve revenue from rollups kept up to date by relayed completions and reconciliation")
+    void shouldServeRevenueFromRollups() {
+        bookingOutboxRelay.relay();
+        revenueRollupService.reconcile(LocalDate.now().minusDays(1));
+        assertThat(todaysRevenue()).isEqualByComparingTo("20.00");
+
+        Movie movie = movieRepository.findAll().stream().findFirst().orElseThrow();
+        Hall hall = hallRepository.findAll().stream().findFirst().orElseThrow();
+        Session session = sessionRepository.save(Session.builder()
+                .movie(movie)
+                .hall(hall)
+                .startTime(OffsetDateTime.now().plusDays(1))
+                .endTime(OffsetDateTime.now().plusDays(1).plusHours(2))
+                .basePrice(new BigDecimal("10.00"))
+                .status(SessionStatus.SCHEDULED)
+                .build());
+        BookingResponse booking = bookingService.createBooking(CreateBookingRequest.builder()
+                .userId(userRepository.findByEmail("admin@cinema.com").orElseThrow().getId())
+                .sessionId(session.getId())
+                .seatIds(List.of(seatRepository.findByHallIdOrdered(hall.getId()).get(0).getId()))
+                .build());
+        bookingService.confirmBooking(booking.getId());
+        bookingService.updateBookingStatus(booking.getId(), UpdateBookingStatusRequest.builder()
+                .newStatus(BookingStatus.COMPLETED)
+                .build());
+        assertThat(todaysRevenue()).isEqualByComparingTo("20.00");
+        bookingOutboxRelay.relay();
+        BigDecimal expected = booking.getTotalPrice().add(new BigDecimal("20.00"));
+        assertThat(todaysRevenue()).isEqualByComparingTo(expected);
+        assertThat(analyticsService.getRevenueByHallType())
+                .anySatisfy(stats -> assertThat(stats.getHallType()).isEqualTo(hall.getHallType()));
+
+        revenueRollupService.reconcile(LocalDate.now().minusDays(1));
+        assertThat(todaysRevenue()).isEqualByComparingTo(expected);
+    }
+
+    @Test
+    @DisplayName("Should repair drifted rollups from the scheduled reconcile job")
+    void shouldReconcileRollupsOnSchedule() {
+        revenueRollupService.reconcile(LocalDate.now().minusDays(1));
+        jdbcTemplate.update("UPDATE daily_hall_type_revenue SET revenue = 0");
+        jdbcTemplate.update("DELETE FROM scheduled_job_leases WHERE job_name = 'reconcile-revenue-rollups'");
+
+        schedulingConfig.reconcileRevenueRollups();
+
+        assertThat(todaysRevenue()).isEqualByComparingTo("20.00");
+    }
+
+    private BigDecimal todaysRevenue() {
+        return analyticsService.getDailyRevenue(1).stream()
+                .map(DailyRevenueResponse::getRevenue)
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+    }
 }
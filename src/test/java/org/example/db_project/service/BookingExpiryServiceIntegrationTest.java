@@ -0,0 +1,120 @@
+package org.example.db_project.service;
+
+import org.example.db_project.BaseIntegrationTest;
+import org.example.db_project.domain.entity.*;
+import org.example.db_project.domain.enums.*;
+import org.example.db_project.domain.repository.*;
+import org.example.db_project.dto.request.CreateBookingRequest;
+import org.example.db_project.dto.response.BookingResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+@TestPropertySource(properties = "booking.expiry.chunk-size=2")
+class BookingExpiryServiceIntegrationTest extends BaseIntegrationTest {
+    @Autowired
+    private BookingExpiryService bookingExpiryService;
+    @Autowired
+    private BookingService bookingService;
+    @Autowired
+    private SeatService seatService;
+    @Autowired
+    private BookingOutboxRelay bookingOutboxRelay;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private MovieRepository movieRepository;
+    @Autowired
+    private HallRepository hallRepository;
+    @Autowired
+    private SeatRepository seatRepository;
+    @Autowired
+    private SessionRepository sessionRepository;
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    private User testUser;
+    private Session testSession;
+    private List<Seat> testSeats;
+
+    @BeforeEach
+    void setUp() {
+        bookingRepository.deleteAll();
+        sessionRepository.deleteAll();
+        testUser = userRepository.findByEmail("admin@cinema.com").orElseThrow();
+        Movie movie = movieRepository.findAll().stream().findFirst().orElseThrow();
+        Hall hall = hallRepository.findAll().stream().findFirst().orElseThrow();
+        testSession = sessionRepository.save(Session.builder()
+                .movie(movie)
+                .hall(hall)
+                .startTime(OffsetDateTime.now().plusDays(1))
+                .endTime(OffsetDateTime.now().plusDays(1).plusHours(2))
+                .basePrice(new BigDecimal("10.00"))
+                .status(SessionStatus.SCHEDULED)
+                .build());
+        testSeats = seatRepository.findByHallIdOrdered(hall.getId()).subList(0, 5);
+    }
+
+    @Test
+    @DisplayName("Should expire stale pending bookings in chunks and release their seats")
+    void shouldExpireStalePendingBookingsInChunks() {
+        List<Long> bookingIds = testSeats.stream()
+                .map(seat -> book(seat.getId()).getId())
+                .toList();
+        List<Long> staleIds = bookingIds.subList(0, 3);
+        backdate(staleIds, Duration.ofHours(1));
+        Long hallId = testSession.getHall().getId();
+        int availableBefore = seatService.countAvailableSeats(hallId, testSession.getId());
+
+        BookingExpiryService.ExpiryRun run = bookingExpiryService.expirePendingBookings(Duration.ofMinutes(15));
+
+        assertThat(run.expired()).isEqualTo(3);
+        assertThat(run.chunks()).isEqualTo(2);
+        assertThat(bookingRepository.findAllById(staleIds))
+                .allMatch(booking -> booking.getStatus() == BookingStatus.EXPIRED);
+        assertThat(bookingRepository.findAllById(bookingIds.subList(3, 5)))
+                .allMatch(booking -> booking.getStatus() == BookingStatus.PENDING);
+        assertThat(seatService.countAvailableSeats(hallId, testSession.getId())).isEqualTo(availableBefore);
+        bookingOutboxRelay.relay();
+        assertThat(seatService.countAvailableSeats(hallId, testSession.getId()))
+                .isEqualTo(availableBefore + 3);
+        assertThat(book(testSeats.get(0).getId()).getStatus()).isEqualTo(BookingStatus.PENDING);
+    }
+
+    @Test
+    @DisplayName("Should not touch confirmed bookings")
+    void shouldNotExpireConfirmedBookings() {
+        BookingResponse booking = book(testSeats.get(0).getId());
+        bookingService.confirmBooking(booking.getId());
+        backdate(List.of(booking.getId()), Duration.ofHours(1));
+        assertThat(bookingExpiryService.expirePendingBookings(Duration.ofMinutes(15)).expired()).isZero();
+        assertThat(bookingRepository.findById(booking.getId()).orElseThrow().getStatus())
+                .isEqualTo(BookingStatus.CONFIRMED);
+    }
+
+    private BookingResponse book(Long seatId) {
+        return bookingService.createBooking(CreateBookingRequest.builder()
+                .userId(testUser.getId())
+                .sessionId(testSession.getId())
+                .seatIds(List.of(seatId))
+                .build());
+    }
+
+    private void backdate(List<Long> bookingIds, Duration age) {
+        for (Long id : bookingIds) {
+            jdbcTemplate.update("UPDATE bookings SET created_at = created_at - make_interval(secs => ?) WHERE id = ?",
+                    age.toSeconds(), id);
+        }
+    }
+}
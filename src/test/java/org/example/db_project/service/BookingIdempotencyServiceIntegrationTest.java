@@ -0,0 +1,149 @@
+package org.example.db_project.service;
+
+import org.example.db_project.BaseIntegrationTest;
+import org.example.db_project.domain.entity.*;
+import org.example.db_project.domain.enums.BookingStatus;
+import org.example.db_project.domain.enums.SessionStatus;
+import org.example.db_project.domain.repository.*;
+import org.example.db_project.dto.request.CreateBookingRequest;
+import org.example.db_project.dto.response.BookingResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.*;
+
+class BookingIdempotencyServiceIntegrationTest extends BaseIntegrationTest {
+    @Autowired
+    private BookingIdempotencyService bookingIdempotencyService;
+    @Autowired
+    private BookingService bookingService;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private MovieRepository movieRepository;
+    @Autowired
+    private HallRepository hallRepository;
+    @Autowired
+    private SeatRepository seatRepository;
+    @Autowired
+    private SessionRepository sessionRepository;
+    @Autowired
+    private BookingRepository bookingRepository;
+    private User testUser;
+    private Session testSession;
+    private List<Long> seatIds;
+
+    @BeforeEach
+    void setUp() {
+        testUser = userRepository.findByEmail("admin@cinema.com").orElseThrow();
+        Movie movie = movieRepository.findAll().stream().findFirst().orElseThrow();
+        Hall hall = hallRepository.findAll().stream().findFirst().orElseThrow();
+        OffsetDateTime startTime = OffsetDateTime.now().plusYears(3).plusMinutes(System.nanoTime() % 100_000);
+        testSession = sessionRepository.save(Session.builder()
+                .movie(movie)
+                .hall(hall)
+                .startTime(startTime)
+                .endTime(startTime.plusHours(2))
+                .basePrice(new BigDecimal("10.00"))
+                .status(SessionStatus.SCHEDULED)
+                .build());
+        seatIds = seatRepository.findByHallIdOrdered(hall.getId()).stream()
+                .map(Seat::getId)
+                .toList();
+    }
+
+    @Test
+    @DisplayName("Should create one booking for concurrent submissions with the same key")
+    void shouldDeduplicateConcurrentSubmissions() throws Exception {
+        String key = UUID.randomUUID().toString();
+        CreateBookingRequest request = request(seatIds.subList(0, 2));
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        List<Future<BookingResponse>> results = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            results.add(executor.submit(() -> bookingIdempotencyService.createBooking(key, request)));
+        }
+        List<Long> bookingIds = new ArrayList<>();
+        for (Future<BookingResponse> result : results) {
+            bookingIds.add(result.get().getId());
+        }
+        executor.shutdown();
+
+        assertThat(bookingIds).containsOnly(bookingIds.get(0));
+        assertThat(bookingRepository.findAll()).filteredOn(booking ->
+                booking.getSession().getId().equals(testSession.getId())).hasSize(1);
+    }
+
+    @Test
+    @DisplayName("Should replay a stored booking when the key is retried on another node")
+    void shouldReplayStoredBooking() {
+        String key = UUID.randomUUID().toString();
+        CreateBookingRequest request = request(seatIds.subList(0, 1));
+        BookingResponse first = bookingIdempotencyService.createBooking(key, request);
+
+        // Bypasses the in-memory entry, as a node that has not seen the key would.
+        BookingResponse retried = bookingService.createBooking(request, key, BookingIdempotencyService.hash(request));
+
+        assertThat(retried.getId()).isEqualTo(first.getId());
+        assertThat(retried.getTotalPrice()).isEqualByComparingTo(first.getTotalPrice());
+    }
+
+    @Test
+    @DisplayName("Should replay the current state of the booking on every path")
+    void shouldReplayCurrentBookingState() {
+        String key = UUID.randomUUID().toString();
+        CreateBookingRequest request = request(seatIds.subList(0, 1));
+        BookingResponse first = bookingIdempotencyService.createBooking(key, request);
+        bookingService.confirmBooking(first.getId());
+
+        BookingResponse cached = bookingIdempotencyService.createBooking(key, request);
+        BookingResponse stored = bookingService.createBooking(request, key, BookingIdempotencyService.hash(request));
+
+        assertThat(first.getStatus()).isEqualTo(BookingStatus.PENDING);
+        assertThat(cached.getStatus()).isEqualTo(BookingStatus.CONFIRMED);
+        assertThat(stored.getStatus()).isEqualTo(BookingStatus.CONFIRMED);
+    }
+
+    @Test
+    @DisplayName("Should reject a key reused for a different request")
+    void shouldRejectKeyReusedForDifferentRequest() {
+        String key = UUID.randomUUID().toString();
+        bookingIdempotencyService.createBooking(key, request(seatIds.subList(0, 1)));
+        CreateBookingRequest other = request(seatIds.subList(1, 2));
+
+        assertThatThrownBy(() -> bookingIdempotencyService.createBooking(key, other))
+                .isInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> bookingService.createBooking(other, key, BookingIdempotencyService.hash(other)))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    @DisplayName("Should release the key of a failed submission")
+    void shouldReleaseKeyOfFailedSubmission() {
+        String key = UUID.randomUUID().toString();
+        bookingService.createBooking(request(seatIds.subList(0, 1)));
+        CreateBookingRequest request = request(seatIds.subList(0, 2));
+
+        assertThatThrownBy(() -> bookingIdempotencyService.createBooking(key, request))
+                .isInstanceOf(RuntimeException.class);
+        assertThat(bookingRepository.findIdempotencyKey(key)).isEmpty();
+    }
+
+    private CreateBookingRequest request(List<Long> seats) {
+        return CreateBookingRequest.builder()
+                .userId(testUser.getId())
+                .sessionId(testSession.getId())
+                .seatIds(seats)
+                .build();
+    }
+}
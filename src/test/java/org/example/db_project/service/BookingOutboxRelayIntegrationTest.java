@@ -0,0 +1,161 @@
+package org.example.db_project.service;
+
+import org.example.db_project.BaseIntegrationTest;
+import org.example.db_project.domain.entity.*;
+import org.example.db_project.domain.enums.BookingStatus;
+import org.example.db_project.domain.enums.SessionStatus;
+import org.example.db_project.domain.event.BookingStatusChangedEvent;
+import org.example.db_project.domain.repository.*;
+import org.example.db_project.dto.request.CreateBookingRequest;
+import org.example.db_project.dto.response.BookingResponse;
+import org.example.db_project.exception.SeatAlreadyBookedException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.event.ApplicationEvents;
+import org.springframework.test.context.event.RecordApplicationEvents;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.*;
+
+@RecordApplicationEvents
+class BookingOutboxRelayIntegrationTest extends BaseIntegrationTest {
+    @Autowired
+    private BookingOutboxRelay bookingOutboxRelay;
+    @Autowired
+    private BookingService bookingService;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private MovieRepository movieRepository;
+    @Autowired
+    private HallRepository hallRepository;
+    @Autowired
+    private SeatRepository seatRepository;
+    @Autowired
+    private SessionRepository sessionRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    @Autowired
+    private ApplicationEvents events;
+    private User testUser;
+    private Session testSession;
+    private List<Long> seatIds;
+
+    @BeforeEach
+    void setUp() {
+        bookingOutboxRelay.relay();
+        testUser = userRepository.findByEmail("admin@cinema.com").orElseThrow();
+        Movie movie = movieRepository.findAll().stream().findFirst().orElseThrow();
+        Hall hall = hallRepository.findAll().stream().findFirst().orElseThrow();
+        OffsetDateTime startTime = OffsetDateTime.now().plusYears(4).plusMinutes(System.nanoTime() % 100_000);
+        testSession = sessionRepository.save(Session.builder()
+                .movie(movie)
+                .hall(hall)
+                .startTime(startTime)
+                .endTime(startTime.plusHours(2))
+                .basePrice(new BigDecimal("10.00"))
+                .status(SessionStatus.SCHEDULED)
+                .build());
+        seatIds = seatRepository.findByHallIdOrdered(hall.getId()).stream()
+                .map(Seat::getId)
+                .toList();
+    }
+
+    @Test
+    @DisplayName("Should relay the state changes of a booking in order")
+    void shouldRelayBookingTransitionsInOrder() {
+        BookingResponse booking = book(seatIds.subList(0, 2));
+        bookingService.confirmBooking(booking.getId());
+        bookingService.cancelBooking(booking.getId());
+
+        assertThat(bookingOutboxRelay.relay()).isGreaterThanOrEqualTo(3);
+
+        assertThat(eventsOf(booking.getId()))
+                .extracting(BookingStatusChangedEvent::fromStatus, BookingStatusChangedEvent::toStatus)
+                .containsExactly(
+                        tuple(null, BookingStatus.PENDING),
+                        tuple(BookingStatus.PENDING, BookingStatus.CONFIRMED),
+                        tuple(BookingStatus.CONFIRMED, BookingStatus.CANCELLED));
+        assertThat(eventsOf(booking.getId())).allSatisfy(event ->
+                assertThat(event.sessionId()).isEqualTo(testSession.getId()));
+        assertThat(pendingRows(booking.getId())).isZero();
+    }
+
+    @Test
+    @DisplayName("Should not record changes of a rolled back transaction")
+    void shouldNotRecordRolledBackChanges() {
+        book(seatIds.subList(0, 1));
+        int before = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM booking_outbox", Integer.class);
+
+        assertThatThrownBy(() -> book(seatIds.subList(0, 2))).isInstanceOf(SeatAlreadyBookedException.class);
+
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM booking_outbox", Integer.class))
+                .isEqualTo(before);
+    }
+
+    @Test
+    @DisplayName("Should skip outbox rows locked by another relay")
+    void shouldSkipRowsLockedByAnotherRelay() throws Exception {
+        BookingResponse locked = book(seatIds.subList(0, 1));
+        bookingService.confirmBooking(locked.getId());
+        BookingResponse free = book(seatIds.subList(1, 2));
+        CountDownLatch lockHeld = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Void> otherRelay = CompletableFuture.runAsync(() -> transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.queryForList("SELECT id FROM booking_outbox WHERE booking_id = ? ORDER BY id LIMIT 1 FOR UPDATE",
+                    Long.class, locked.getId());
+            lockHeld.countDown();
+            try {
+                release.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }));
+        assertThat(lockHeld.await(10, TimeUnit.SECONDS)).isTrue();
+
+        bookingOutboxRelay.relay();
+        release.countDown();
+        otherRelay.get(10, TimeUnit.SECONDS);
+
+        assertThat(eventsOf(free.getId())).hasSize(1);
+        // The confirmation waits behind the locked creation event of the same booking.
+        assertThat(eventsOf(locked.getId())).isEmpty();
+        assertThat(pendingRows(locked.getId())).isEqualTo(2);
+
+        bookingOutboxRelay.relay();
+        assertThat(eventsOf(locked.getId()))
+                .extracting(BookingStatusChangedEvent::toStatus)
+                .containsExactly(BookingStatus.PENDING, BookingStatus.CONFIRMED);
+    }
+
+    private BookingResponse book(List<Long> seats) {
+        return bookingService.createBooking(CreateBookingRequest.builder()
+                .userId(testUser.getId())
+                .sessionId(testSession.getId())
+                .seatIds(seats)
+                .build());
+    }
+
+    private List<BookingStatusChangedEvent> eventsOf(Long bookingId) {
+        return events.stream(BookingStatusChangedEvent.class)
+                .filter(event -> event.bookingId().equals(bookingId))
+                .toList();
+    }
+
+    private int pendingRows(Long bookingId) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM booking_outbox WHERE booking_id = ?",
+                Integer.class, bookingId);
+    }
+}
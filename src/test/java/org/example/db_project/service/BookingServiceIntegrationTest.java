@@ -6,27 +6,43 @@ import org.example.db_project.domain.enums.*;
 import org.example.db_project.domain.repository.*;
 import org.example.db_project.dto.request.CreateBookingRequest;
 import org.example.db_project.dto.request.UpdateBookingStatusRequest;
+import org.example.db_project.dto.response.BookingHistoryResponse;
 import org.example.db_project.dto.response.BookingResponse;
+import org.example.db_project.dto.response.BookingSeatResponse;
+import org.example.db_project.dto.response.SeatResponse;
 import org.example.db_project.exception.InvalidBookingStateException;
+import org.example.db_project.exception.PriceChangedException;
+import org.example.db_project.exception.ResourceNotFoundException;
 import org.example.db_project.exception.SeatAlreadyBookedException;
 import org.example.db_project.exception.SessionNotAvailableException;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import jakarta.persistence.EntityManagerFactory;
 
 import java.math.BigDecimal;
+import java.math.RoundingMode;
 import java.time.OffsetDateTime;
 import java.util.List;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.assertj.core.api.Assertions.*;
 
+@TestPropertySource(properties = "pricing.dynamic.enabled=true")
 class BookingServiceIntegrationTest extends BaseIntegrationTest {
     @Autowired
     private BookingService bookingService;
@@ -42,6 +58,22 @@ class BookingServiceIntegrationTest extends BaseIntegrationTest {
     private SessionRepository sessionRepository;
     @Autowired
     private BookingRepository bookingRepository;
+    @Autowired
+    private SeatService seatService;
+    @Autowired
+    private BookingOutboxRelay bookingOutboxRelay;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private SeatOccupancyIndex seatOccupancyIndex;
+    @Autowired
+    private HallService hallService;
+    @Autowired
+    private SessionService sessionService;
     private User testUser;
     private Session testSession;
     private List<Seat> testSeats;
@@ -216,6 +248,49 @@ class BookingServiceIntegrationTest extends BaseIntegrationTest {
         assertThat(failCount.get()).isEqualTo(threadCount - 1);
     }
 
+    @Test
+    @DisplayName("Should book a seat while another session's booking holds the seat row lock")
+    void shouldNotWaitOnSeatLocksOfOtherSessions() throws Exception {
+        Session otherSession = sessionRepository.save(Session.builder()
+                .movie(testSession.getMovie())
+                .hall(testSession.getHall())
+                .startTime(OffsetDateTime.now().plusDays(2))
+                .endTime(OffsetDateTime.now().plusDays(2).plusHours(2))
+                .basePrice(new BigDecimal("10.00"))
+                .status(SessionStatus.SCHEDULED)
+                .build());
+        Long seatId = testSeats.get(0).getId();
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        CountDownLatch locked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        // Stands in for a ROW_LOCK booking of the same seat in another session, still in flight.
+        Future<?> lockHolder = executor.submit(() -> new TransactionTemplate(transactionManager)
+                .executeWithoutResult(status -> {
+                    jdbcTemplate.queryForList("SELECT id FROM seats WHERE id = ? FOR UPDATE", seatId);
+                    locked.countDown();
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }));
+        try {
+            assertThat(locked.await(10, TimeUnit.SECONDS)).isTrue();
+            Future<BookingResponse> booking = executor.submit(() ->
+                    bookingService.createBooking(CreateBookingRequest.builder()
+                            .userId(testUser.getId())
+                            .sessionId(otherSession.getId())
+                            .seatIds(List.of(seatId))
+                            .build()));
+
+            assertThat(booking.get(5, TimeUnit.SECONDS).getStatus()).isEqualTo(BookingStatus.PENDING);
+        } finally {
+            release.countDown();
+            lockHolder.get(10, TimeUnit.SECONDS);
+            executor.shutdown();
+        }
+    }
+
     @Test
     @DisplayName("Should calculate total price correctly with seat multipliers")
     void shouldCalculateTotalPriceCorrectly() {
@@ -230,4 +305,236 @@ class BookingServiceIntegrationTest extends BaseIntegrationTest {
                 .reduce(BigDecimal.ZERO, BigDecimal::add);
         assertThat(response.getTotalPrice()).isEqualByComparingTo(expectedTotal);
     }
+
+    @Test
+    @DisplayName("Should refuse a booking whose total differs from the quoted one")
+    void shouldRejectBookingWhenPriceChanged() {
+        List<Long> seatIds = testSeats.stream().map(Seat::getId).toList();
+        BigDecimal quoted = seatService.getAvailableSeatsForSession(testSession.getHall().getId(), testSession.getId())
+                .stream()
+                .filter(seat -> seatIds.contains(seat.getId()))
+                .map(SeatResponse::getPrice)
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        CreateBookingRequest stale = CreateBookingRequest.builder()
+                .userId(testUser.getId())
+                .sessionId(testSession.getId())
+                .seatIds(seatIds)
+                .expectedTotalPrice(quoted.subtract(BigDecimal.ONE))
+                .build();
+
+        assertThatThrownBy(() -> bookingService.createBooking(stale))
+                .isInstanceOf(PriceChangedException.class);
+        assertThat(bookingRepository.findAll()).noneMatch(booking ->
+                booking.getSession().getId().equals(testSession.getId()));
+
+        stale.setExpectedTotalPrice(quoted);
+        assertThat(bookingService.createBooking(stale).getTotalPrice()).isEqualByComparingTo(quoted);
+    }
+
+    @Test
+    @DisplayName("Should keep seat occupancy index in sync with bookings")
+    void shouldKeepSeatOccupancyIndexInSync() {
+        Long hallId = testSession.getHall().getId();
+        List<Long> seatIds = testSeats.stream().map(Seat::getId).toList();
+        int availableBefore = seatService.countAvailableSeats(hallId, testSession.getId());
+        BookingResponse booking = bookingService.createBooking(CreateBookingRequest.builder()
+                .userId(testUser.getId())
+                .sessionId(testSession.getId())
+                .seatIds(seatIds)
+                .build());
+        assertThat(seatService.countAvailableSeats(hallId, testSession.getId()))
+                .isEqualTo(availableBefore - seatIds.size());
+        assertThat(seatService.getAvailableSeatsForSession(hallId, testSession.getId()))
+                .filteredOn(seat -> !seat.isAvailable())
+                .extracting(SeatResponse::getId)
+                .containsExactlyInAnyOrderElementsOf(seatIds);
+        bookingService.cancelBooking(booking.getId());
+        // The release reaches the index through the outbox relay.
+        assertThat(seatService.countAvailableSeats(hallId, testSession.getId()))
+                .isEqualTo(availableBefore - seatIds.size());
+        bookingOutboxRelay.relay();
+        assertThat(seatService.countAvailableSeats(hallId, testSession.getId()))
+                .isEqualTo(availableBefore);
+    }
+
+    @Test
+    @DisplayName("Should keep seats booked again before their release was relayed")
+    void shouldKeepRebookedSeatsWhenReleaseIsRelayed() {
+        Long hallId = testSession.getHall().getId();
+        List<Long> seatIds = testSeats.stream().map(Seat::getId).toList();
+        CreateBookingRequest request = CreateBookingRequest.builder()
+                .userId(testUser.getId())
+                .sessionId(testSession.getId())
+                .seatIds(seatIds)
+                .build();
+        int availableBefore = seatService.countAvailableSeats(hallId, testSession.getId());
+        bookingService.cancelBooking(bookingService.createBooking(request).getId());
+        bookingService.createBooking(request);
+
+        bookingOutboxRelay.relay();
+
+        assertThat(seatService.countAvailableSeats(hallId, testSession.getId()))
+                .isEqualTo(availableBefore - seatIds.size());
+    }
+
+    @Test
+    @DisplayName("Should rebuild seat occupancy on reloaded hall layouts")
+    void shouldRebuildSeatOccupancyWhenLayoutsReload() {
+        Long hallId = testSession.getHall().getId();
+        SeatOccupancyIndex.SessionOccupancy before = seatOccupancyIndex.getOccupancy(hallId, testSession.getId());
+
+        hallService.reloadLayouts();
+
+        assertThat(seatOccupancyIndex.isLoaded(testSession.getId())).isFalse();
+        assertThat(seatOccupancyIndex.getOccupancy(hallId, testSession.getId())).isNotSameAs(before);
+    }
+
+    @Test
+    @DisplayName("Should evict seat occupancy of a cancelled session only once the cancellation commits")
+    void shouldEvictSeatOccupancyAfterCancellationCommits() {
+        Long sessionId = testSession.getId();
+        seatOccupancyIndex.getOccupancy(testSession.getHall().getId(), sessionId);
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            sessionService.cancelSession(sessionId);
+            assertThat(seatOccupancyIndex.isLoaded(sessionId)).isTrue();
+            status.setRollbackOnly();
+        });
+        assertThat(seatOccupancyIndex.isLoaded(sessionId)).isTrue();
+
+        sessionService.cancelSession(sessionId);
+
+        assertThat(seatOccupancyIndex.isLoaded(sessionId)).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should check seat conflicts with a constant number of queries regardless of party size")
+    void shouldCheckSeatConflictsWithConstantQueryCount() {
+        List<Long> hallSeatIds = seatRepository.findByHallIdOrdered(testSession.getHall().getId())
+                .stream()
+                .map(Seat::getId)
+                .toList();
+        // Loads the session's occupancy, layout and prices, which the first booking would otherwise pay for.
+        seatService.getAvailableSeatsForSession(testSession.getHall().getId(), testSession.getId());
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        bookingService.createBooking(CreateBookingRequest.builder()
+                .userId(testUser.getId())
+                .sessionId(testSession.getId())
+                .seatIds(hallSeatIds.subList(0, 1))
+                .build());
+        long singleSeatQueries = statistics.getQueryExecutionCount();
+        statistics.clear();
+        bookingService.createBooking(CreateBookingRequest.builder()
+                .userId(testUser.getId())
+                .sessionId(testSession.getId())
+                .seatIds(hallSeatIds.subList(1, 11))
+                .build());
+        long groupQueries = statistics.getQueryExecutionCount();
+        assertThat(groupQueries).isEqualTo(singleSeatQueries);
+    }
+
+    @Test
+    @DisplayName("Should page booking history by cursor with a fixed number of queries")
+    void shouldPageBookingHistoryByCursor() {
+        List<Long> bookingIds = testSeats.stream()
+                .map(seat -> bookingService.createBooking(CreateBookingRequest.builder()
+                        .userId(testUser.getId())
+                        .sessionId(testSession.getId())
+                        .seatIds(List.of(seat.getId()))
+                        .build()).getId())
+                .toList();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        BookingHistoryResponse firstPage = bookingService.getUserBookingHistory(testUser.getId(), null, 2);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(4);
+        assertThat(firstPage.getBookings()).extracting(BookingResponse::getId)
+                .containsExactly(bookingIds.get(2), bookingIds.get(1));
+        assertThat(firstPage.getBookings()).allSatisfy(booking -> {
+            assertThat(booking.getSeats()).hasSize(1);
+            assertThat(booking.getSession().getHall()).isNotNull();
+        });
+        assertThat(firstPage.getNextCursor()).isNotNull();
+        BookingHistoryResponse lastPage = bookingService.getUserBookingHistory(
+                testUser.getId(), firstPage.getNextCursor(), 2);
+        assertThat(lastPage.getBookings()).extracting(BookingResponse::getId)
+                .containsExactly(bookingIds.get(0));
+        assertThat(lastPage.getNextCursor()).isNull();
+        assertThatThrownBy(() -> bookingService.getUserBookingHistory(testUser.getId(), "not-a-cursor", 2))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    @DisplayName("Should serve seat maps and validate seats from the hall layout cache")
+    void shouldServeSeatMapsFromHallLayoutCache() {
+        Long hallId = testSession.getHall().getId();
+        seatService.getAvailableSeatsForSession(hallId, testSession.getId());
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        List<SeatResponse> seatMap = seatService.getAvailableSeatsForSession(hallId, testSession.getId());
+        assertThat(seatService.getSeatsByHall(hallId)).hasSameSizeAs(seatMap);
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+        assertThat(seatMap).extracting(SeatResponse::getId)
+                .containsExactlyElementsOf(seatRepository.findIdsByHallIdOrdered(hallId));
+        Long otherHallSeatId = hallRepository.findAll().stream()
+                .filter(hall -> !hall.getId().equals(hallId))
+                .findFirst()
+                .map(hall -> seatRepository.findIdsByHallIdOrdered(hall.getId()).getFirst())
+                .orElseThrow();
+        assertThatThrownBy(() -> bookingService.createBooking(CreateBookingRequest.builder()
+                .userId(testUser.getId())
+                .sessionId(testSession.getId())
+                .seatIds(List.of(testSeats.get(0).getId(), otherHallSeatId))
+                .build()))
+                .isInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> bookingService.createBooking(CreateBookingRequest.builder()
+                .userId(testUser.getId())
+                .sessionId(testSession.getId())
+                .seatIds(List.of(Long.MAX_VALUE))
+                .build()))
+                .isInstanceOf(ResourceNotFoundException.class);
+    }
+
+    @Test
+    @DisplayName("Should price seat maps and bookings from the session price table")
+    void shouldPriceFromSessionPriceTable() {
+        Long hallId = testSession.getHall().getId();
+        List<SeatResponse> seatMap = seatService.getAvailableSeatsForSession(hallId, testSession.getId());
+        assertThat(seatMap).allSatisfy(seat -> assertThat(seat.getPrice())
+                .isEqualByComparingTo(testSession.getBasePrice().multiply(seat.getPriceMultiplier())));
+        List<SeatResponse> requested = seatMap.subList(0, 2);
+        BookingResponse booking = bookingService.createBooking(CreateBookingRequest.builder()
+                .userId(testUser.getId())
+                .sessionId(testSession.getId())
+                .seatIds(requested.stream().map(SeatResponse::getId).toList())
+                .build());
+        assertThat(booking.getSeats()).extracting(BookingSeatResponse::getPrice)
+                .containsExactlyInAnyOrderElementsOf(requested.stream().map(SeatResponse::getPrice).toList());
+        assertThat(booking.getTotalPrice()).isEqualByComparingTo(requested.stream()
+                .map(SeatResponse::getPrice)
+                .reduce(BigDecimal.ZERO, BigDecimal::add));
+    }
+
+    @Test
+    @DisplayName("Should discount and lock in prices of an undersold session about to start")
+    void shouldApplyLastMinuteDiscount() {
+        Session soonSession = sessionRepository.save(Session.builder()
+                .movie(testSession.getMovie())
+                .hall(testSession.getHall())
+                .startTime(OffsetDateTime.now().plusHours(1))
+                .endTime(OffsetDateTime.now().plusHours(3))
+                .basePrice(new BigDecimal("10.00"))
+                .status(SessionStatus.SCHEDULED)
+                .build());
+        List<SeatResponse> seatMap = seatService.getAvailableSeatsForSession(
+                soonSession.getHall().getId(), soonSession.getId());
+        assertThat(seatMap).allSatisfy(seat -> assertThat(seat.getPrice()).isEqualByComparingTo(
+                new BigDecimal("9.00").multiply(seat.getPriceMultiplier()).setScale(2, RoundingMode.HALF_UP)));
+        SeatResponse requested = seatMap.get(0);
+        BookingResponse booking = bookingService.createBooking(CreateBookingRequest.builder()
+                .userId(testUser.getId())
+                .sessionId(soonSession.getId())
+                .seatIds(List.of(requested.getId()))
+                .build());
+        assertThat(booking.getTotalPrice()).isEqualByComparingTo(requested.getPrice());
+    }
 }
@@ -0,0 +1,99 @@
+package org.example.db_project.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.db_project.BaseIntegrationTest;
+import org.example.db_project.domain.entity.*;
+import org.example.db_project.domain.enums.*;
+import org.example.db_project.domain.repository.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+class ExportServiceIntegrationTest extends BaseIntegrationTest {
+    private static final int BOOKINGS = 25;
+
+    @Autowired
+    private ExportService exportService;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private SessionRepository sessionRepository;
+    @Autowired
+    private MovieRepository movieRepository;
+    @Autowired
+    private HallRepository hallRepository;
+    @Autowired
+    private SeatRepository seatRepository;
+    @Autowired
+    private UserRepository userRepository;
+
+    @BeforeEach
+    void setUp() {
+        bookingRepository.deleteAll();
+        sessionRepository.deleteAll();
+        User user = userRepository.findByEmail("admin@cinema.com").orElseThrow();
+        Hall hall = hallRepository.findAll().stream().findFirst().orElseThrow();
+        List<Seat> seats = seatRepository.findByHallIdOrdered(hall.getId());
+        Session session = sessionRepository.save(Session.builder()
+                .movie(movieRepository.findAll().stream().findFirst().orElseThrow())
+                .hall(hall)
+                .startTime(OffsetDateTime.now().plusDays(1))
+                .endTime(OffsetDateTime.now().plusDays(1).plusHours(2))
+                .basePrice(new BigDecimal("10.00"))
+                .status(SessionStatus.SCHEDULED)
+                .build());
+        for (int i = 0; i < BOOKINGS; i++) {
+            Booking booking = Booking.builder()
+                    .user(user)
+                    .session(session)
+                    .totalPrice(new BigDecimal("10.00"))
+                    .status(BookingStatus.CONFIRMED)
+                    .build();
+            booking.addBookingSeat(BookingSeat.builder()
+                    .seat(seats.get(i))
+                    .price(new BigDecimal("10.00"))
+                    .build());
+            bookingRepository.save(booking);
+        }
+    }
+
+    @Test
+    @DisplayName("Should stream bookings in a date range as CSV")
+    void shouldExportBookingsAsCsv() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        exportService.exportBookings(LocalDate.now().minusDays(1), LocalDate.now().plusDays(1), ExportFormat.CSV, out);
+        List<String> lines = out.toString(StandardCharsets.UTF_8).lines().toList();
+        assertThat(lines).hasSize(BOOKINGS + 1);
+        assertThat(lines.get(0)).startsWith("booking_id,created_at,status,total_price,tickets");
+        assertThat(lines.get(1)).contains(",CONFIRMED,10.00,1,admin@cinema.com,");
+    }
+
+    @Test
+    @DisplayName("Should stream bookings as NDJSON and exclude dates outside the range")
+    void shouldExportBookingsAsNdjson() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        exportService.exportBookings(LocalDate.now().minusDays(1), LocalDate.now().plusDays(1), ExportFormat.NDJSON, out);
+        List<String> lines = out.toString(StandardCharsets.UTF_8).lines().toList();
+        assertThat(lines).hasSize(BOOKINGS);
+        JsonNode first = objectMapper.readTree(lines.get(0));
+        assertThat(first.get("total_price").decimalValue()).isEqualByComparingTo("10.00");
+        assertThat(first.get("tickets").asLong()).isEqualTo(1);
+
+        ByteArrayOutputStream empty = new ByteArrayOutputStream();
+        exportService.exportBookings(LocalDate.now().minusDays(10), LocalDate.now().minusDays(5), ExportFormat.NDJSON, empty);
+        assertThat(empty.size()).isZero();
+    }
+}
@@ -0,0 +1,165 @@
+package org.example.db_project.service;
+
+import org.example.db_project.BaseIntegrationTest;
+import org.example.db_project.domain.entity.Hall;
+import org.example.db_project.domain.entity.Movie;
+import org.example.db_project.domain.entity.Session;
+import org.example.db_project.domain.enums.SessionStatus;
+import org.example.db_project.domain.repository.HallRepository;
+import org.example.db_project.domain.repository.MovieRepository;
+import org.example.db_project.domain.repository.SessionRepository;
+import org.example.db_project.dto.request.CreateSessionRequest;
+import org.example.db_project.dto.response.FreeSlotResponse;
+import org.example.db_project.dto.response.HallResponse;
+import org.example.db_project.dto.response.SessionResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.assertj.core.api.Assertions.*;
+
+class HallAvailabilityIndexIntegrationTest extends BaseIntegrationTest {
+    @Autowired
+    private HallService hallService;
+    @Autowired
+    private HallAvailabilityIndex hallAvailabilityIndex;
+    @Autowired
+    private SessionService sessionService;
+    @Autowired
+    private MovieRepository movieRepository;
+    @Autowired
+    private HallRepository hallRepository;
+    @Autowired
+    private SessionRepository sessionRepository;
+    private Movie testMovie;
+    private Hall testHall;
+    private OffsetDateTime baseTime;
+
+    @BeforeEach
+    void setUp() {
+        testMovie = movieRepository.findAll().stream().findFirst().orElseThrow();
+        testHall = hallRepository.findAll().stream().findFirst().orElseThrow();
+        // a day no other test schedules sessions on
+        baseTime = OffsetDateTime.now()
+                .plusDays(1000 + ThreadLocalRandom.current().nextInt(10_000))
+                .truncatedTo(ChronoUnit.HOURS);
+    }
+
+    @Test
+    @DisplayName("Should find halls free during a window and follow cancellations")
+    void shouldFindAvailableHalls() {
+        SessionResponse session = createSession(baseTime);
+
+        List<HallResponse> available = hallService.getAvailableHalls(
+                baseTime.plusMinutes(30), baseTime.plusMinutes(60), null);
+        assertThat(available).extracting(HallResponse::getId).doesNotContain(testHall.getId());
+        assertThat(hallService.getAvailableHalls(session.getEndTime(), session.getEndTime().plusHours(1), null))
+                .extracting(HallResponse::getId)
+                .contains(testHall.getId());
+
+        sessionService.cancelSession(session.getId());
+
+        assertThat(hallService.getAvailableHalls(baseTime.plusMinutes(30), baseTime.plusMinutes(60), null))
+                .extracting(HallResponse::getId)
+                .contains(testHall.getId());
+    }
+
+    @Test
+    @DisplayName("Should only return halls of the requested type")
+    void shouldFilterAvailableHallsByType() {
+        List<HallResponse> available = hallService.getAvailableHalls(
+                baseTime, baseTime.plusHours(2), testHall.getHallType());
+
+        assertThat(available).isNotEmpty();
+        assertThat(available).extracting(HallResponse::getHallType).containsOnly(testHall.getHallType());
+    }
+
+    @Test
+    @DisplayName("Should find back-to-back free slots around scheduled sessions")
+    void shouldFindFreeSlots() {
+        SessionResponse first = createSession(baseTime);
+        SessionResponse second = createSession(first.getEndTime().plusMinutes(90));
+
+        List<FreeSlotResponse> slots = hallService.getFreeSlots(testHall.getId(), baseTime, 60, 3);
+
+        assertThat(slots).extracting(slot -> slot.getStartTime().toInstant()).containsExactly(
+                first.getEndTime().toInstant(),
+                second.getEndTime().toInstant(),
+                second.getEndTime().plusMinutes(60).toInstant());
+        assertThat(slots.get(0).getEndTime().toInstant())
+                .isEqualTo(first.getEndTime().plusMinutes(60).toInstant());
+    }
+
+    @Test
+    @DisplayName("Should drop sessions once they have ended and answer for them from the database")
+    void shouldDropEndedSessions() {
+        SessionResponse session = createSession(baseTime);
+        assertThat(hallService.getAvailableHalls(baseTime, session.getEndTime(), null))
+                .extracting(HallResponse::getId)
+                .doesNotContain(testHall.getId());
+        int indexed = hallAvailabilityIndex.size();
+
+        try {
+            assertThat(hallAvailabilityIndex.removeEndedBefore(session.getEndTime())).isPositive();
+
+            assertThat(hallAvailabilityIndex.size()).isLessThan(indexed);
+            assertThat(hallService.getAvailableHalls(baseTime, session.getEndTime(), null))
+                    .extracting(HallResponse::getId)
+                    .doesNotContain(testHall.getId());
+        } finally {
+            hallAvailabilityIndex.reload();
+        }
+    }
+
+    @Test
+    @DisplayName("Should find available halls for past, partly past and future windows")
+    void shouldFindAvailableHallsForPastAndFutureWindows() {
+        OffsetDateTime pastStart = OffsetDateTime.now()
+                .minusDays(1000 + ThreadLocalRandom.current().nextInt(10_000))
+                .truncatedTo(ChronoUnit.HOURS);
+        sessionRepository.save(Session.builder()
+                .movie(testMovie)
+                .hall(testHall)
+                .startTime(pastStart)
+                .endTime(pastStart.plusHours(2))
+                .basePrice(new BigDecimal("12.00"))
+                .status(SessionStatus.COMPLETED)
+                .build());
+        OffsetDateTime now = OffsetDateTime.now();
+        sessionRepository.save(Session.builder()
+                .movie(testMovie)
+                .hall(testHall)
+                .startTime(now.minusHours(1))
+                .endTime(now.minusMinutes(1))
+                .basePrice(new BigDecimal("12.00"))
+                .status(SessionStatus.COMPLETED)
+                .build());
+
+        assertThat(hallService.getAvailableHalls(pastStart.plusMinutes(30), pastStart.plusMinutes(60), null))
+                .extracting(HallResponse::getId)
+                .doesNotContain(testHall.getId());
+        assertThat(hallService.getAvailableHalls(pastStart.plusHours(2), pastStart.plusHours(3), null))
+                .extracting(HallResponse::getId)
+                .contains(testHall.getId());
+        assertThat(hallService.getAvailableHalls(now.minusMinutes(30), now.plusHours(1), null))
+                .extracting(HallResponse::getId)
+                .doesNotContain(testHall.getId());
+        assertThat(hallService.getAvailableHalls(baseTime, baseTime.plusHours(3), null)).isNotEmpty();
+    }
+
+    private SessionResponse createSession(OffsetDateTime startTime) {
+        return sessionService.createSession(CreateSessionRequest.builder()
+                .movieId(testMovie.getId())
+                .hallId(testHall.getId())
+                .startTime(startTime)
+                .basePrice(new BigDecimal("12.00"))
+                .build());
+    }
+}
@@ -0,0 +1,159 @@
+package org.example.db_project.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.db_project.BaseIntegrationTest;
+import org.example.db_project.domain.entity.*;
+import org.example.db_project.domain.enums.SessionStatus;
+import org.example.db_project.domain.repository.*;
+import org.example.db_project.dto.request.CreateBookingRequest;
+import org.example.db_project.dto.response.SeatAvailabilityUpdate;
+import org.example.db_project.dto.response.SessionOccupancyUpdate;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.io.BufferedReader;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+class OccupancyStreamServiceIntegrationTest extends BaseIntegrationTest {
+    @LocalServerPort
+    private int port;
+    @Autowired
+    private BookingService bookingService;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private MovieRepository movieRepository;
+    @Autowired
+    private HallRepository hallRepository;
+    @Autowired
+    private SeatRepository seatRepository;
+    @Autowired
+    private SessionRepository sessionRepository;
+    @Autowired
+    private ObjectMapper objectMapper;
+    private User testUser;
+    private Session testSession;
+    private List<Long> seatIds;
+
+    @BeforeEach
+    void setUp() {
+        testUser = userRepository.findByEmail("admin@cinema.com").orElseThrow();
+        Movie movie = movieRepository.findAll().stream().findFirst().orElseThrow();
+        Hall hall = hallRepository.findAll().stream().findFirst().orElseThrow();
+        OffsetDateTime startTime = OffsetDateTime.now().plusYears(2).plusMinutes(System.nanoTime() % 100_000);
+        testSession = sessionRepository.save(Session.builder()
+                .movie(movie)
+                .hall(hall)
+                .startTime(startTime)
+                .endTime(startTime.plusHours(2))
+                .basePrice(new BigDecimal("10.00"))
+                .status(SessionStatus.SCHEDULED)
+                .build());
+        seatIds = seatRepository.findByHallIdOrdered(hall.getId()).stream()
+                .map(Seat::getId)
+                .toList();
+    }
+
+    @Test
+    @Timeout(value = 30, threadMode = Timeout.ThreadMode.SEPARATE_THREAD)
+    @DisplayName("Should stream a snapshot and then coalesced seat deltas")
+    void shouldStreamSeatDeltas() throws Exception {
+        try (EventStream stream = open("/api/sessions/" + testSession.getId() + "/seats/stream")) {
+            SeatAvailabilityUpdate snapshot = stream.next("snapshot", SeatAvailabilityUpdate.class);
+            assertThat(snapshot.getBookedSeatIds()).isEmpty();
+            assertThat(snapshot.getAvailableSeats()).isEqualTo(seatIds.size());
+
+            book(seatIds.subList(0, 2));
+            book(seatIds.subList(2, 3));
+
+            // Bookings within one coalesce window arrive as a single update.
+            List<Long> booked = new ArrayList<>();
+            SeatAvailabilityUpdate update;
+            do {
+                update = stream.next("seats", SeatAvailabilityUpdate.class);
+                assertThat(update.getReleasedSeatIds()).isEmpty();
+                booked.addAll(update.getBookedSeatIds());
+            } while (booked.size() < 3);
+            assertThat(booked).containsExactlyElementsOf(seatIds.subList(0, 3));
+            assertThat(update.getAvailableSeats()).isEqualTo(seatIds.size() - 3);
+        }
+    }
+
+    @Test
+    @Timeout(value = 30, threadMode = Timeout.ThreadMode.SEPARATE_THREAD)
+    @DisplayName("Should stream occupancy counts for changed sessions")
+    void shouldStreamOccupancyChanges() throws Exception {
+        try (EventStream stream = open("/api/analytics/sessions/occupancy/stream")) {
+            book(seatIds.subList(0, 4));
+
+            SessionOccupancyUpdate[] updates = stream.next("occupancy", SessionOccupancyUpdate[].class);
+            assertThat(updates).anySatisfy(update -> {
+                assertThat(update.getSessionId()).isEqualTo(testSession.getId());
+                assertThat(update.getBookedSeats()).isEqualTo(4);
+                assertThat(update.getCapacity()).isEqualTo(seatIds.size());
+            });
+        }
+    }
+
+    private void book(List<Long> seats) {
+        bookingService.createBooking(CreateBookingRequest.builder()
+                .userId(testUser.getId())
+                .sessionId(testSession.getId())
+                .seatIds(seats)
+                .build());
+    }
+
+    private EventStream open(String path) throws Exception {
+        HttpResponse<InputStream> response = HttpClient.newHttpClient().send(
+                HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+                        .header("Accept", "text/event-stream")
+                        .timeout(Duration.ofSeconds(10))
+                        .build(),
+                HttpResponse.BodyHandlers.ofInputStream());
+        assertThat(response.statusCode()).isEqualTo(200);
+        return new EventStream(new BufferedReader(new InputStreamReader(response.body(), StandardCharsets.UTF_8)));
+    }
+
+    private class EventStream implements AutoCloseable {
+        private final BufferedReader reader;
+
+        EventStream(BufferedReader reader) {
+            this.reader = reader;
+        }
+
+        <T> T next(String name, Class<T> type) throws Exception {
+            String event = null;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.startsWith("event:")) {
+                    event = line.substring("event:".length()).trim();
+                } else if (line.startsWith("data:") && name.equals(event)) {
+                    return objectMapper.readValue(line.substring("data:".length()), type);
+                }
+            }
+            throw new AssertionError("Stream ended before a " + name + " event");
+        }
+
+        @Override
+        public void close() throws Exception {
+            reader.close();
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package org.example.db_project.service;
+
+import org.example.db_project.BaseIntegrationTest;
+import org.example.db_project.domain.entity.*;
+import org.example.db_project.domain.enums.*;
+import org.example.db_project.domain.repository.*;
+import org.example.db_project.dto.request.CreateBookingRequest;
+import org.example.db_project.dto.response.BookingResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.*;
+
+@TestPropertySource(properties = "booking.hold.ttl=PT2S")
+class SeatHoldServiceIntegrationTest extends BaseIntegrationTest {
+    @Autowired
+    private BookingService bookingService;
+    @Autowired
+    private SeatHoldService seatHoldService;
+    @Autowired
+    private BookingOutboxRelay bookingOutboxRelay;
+    @Autowired
+    private SeatService seatService;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private MovieRepository movieRepository;
+    @Autowired
+    private HallRepository hallRepository;
+    @Autowired
+    private SeatRepository seatRepository;
+    @Autowired
+    private SessionRepository sessionRepository;
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    private User testUser;
+    private Session testSession;
+    private Long seatId;
+
+    @BeforeEach
+    void setUp() {
+        bookingRepository.deleteAll();
+        sessionRepository.deleteAll();
+        testUser = userRepository.findByEmail("admin@cinema.com").orElseThrow();
+        Movie movie = movieRepository.findAll().stream().findFirst().orElseThrow();
+        Hall hall = hallRepository.findAll().stream().findFirst().orElseThrow();
+        testSession = sessionRepository.save(Session.builder()
+                .movie(movie)
+                .hall(hall)
+                .startTime(OffsetDateTime.now().plusDays(1))
+                .endTime(OffsetDateTime.now().plusDays(1).plusHours(2))
+                .basePrice(new BigDecimal("10.00"))
+                .status(SessionStatus.SCHEDULED)
+                .build());
+        seatId = seatRepository.findByHallIdOrdered(hall.getId()).get(0).getId();
+    }
+
+    @Test
+    @DisplayName("Should expire pending booking and release its seats when the hold lapses")
+    void shouldExpireBookingWhenHoldLapses() throws InterruptedException {
+        BookingResponse booking = createBooking();
+        Long hallId = testSession.getHall().getId();
+        int availableWhileHeld = seatService.countAvailableSeats(hallId, testSession.getId());
+        boolean expired = await(Duration.ofSeconds(10), () ->
+                bookingRepository.findById(booking.getId()).orElseThrow().getStatus() == BookingStatus.EXPIRED);
+        assertThat(expired).isTrue();
+        bookingOutboxRelay.relay();
+        assertThat(seatService.countAvailableSeats(hallId, testSession.getId())).isEqualTo(availableWhileHeld + 1);
+        assertThat(createBooking().getStatus()).isEqualTo(BookingStatus.PENDING);
+    }
+
+    @Test
+    @DisplayName("Should release hold when booking is confirmed")
+    void shouldReleaseHoldWhenBookingConfirmed() throws InterruptedException {
+        BookingResponse booking = createBooking();
+        bookingService.confirmBooking(booking.getId());
+        Thread.sleep(seatHoldService.getTtl().plusSeconds(1).toMillis());
+        assertThat(bookingRepository.findById(booking.getId()).orElseThrow().getStatus())
+                .isEqualTo(BookingStatus.CONFIRMED);
+    }
+
+    @Test
+    @DisplayName("Should leave holds untouched when the booking transaction rolls back")
+    void shouldKeepHoldsWhenTransactionRollsBack() throws InterruptedException {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        // holds left by earlier tests lapse within the 2s TTL
+        assertThat(await(Duration.ofSeconds(10), () -> seatHoldService.getActiveHoldCount() == 0)).isTrue();
+        transaction.executeWithoutResult(status -> {
+            createBooking();
+            status.setRollbackOnly();
+        });
+        assertThat(seatHoldService.getActiveHoldCount()).isZero();
+
+        BookingResponse booking = createBooking();
+        transaction.executeWithoutResult(status -> {
+            bookingService.cancelBooking(booking.getId());
+            status.setRollbackOnly();
+        });
+        assertThat(seatHoldService.getActiveHoldCount()).isEqualTo(1);
+        boolean expired = await(Duration.ofSeconds(10), () ->
+                bookingRepository.findById(booking.getId()).orElseThrow().getStatus() == BookingStatus.EXPIRED);
+        assertThat(expired).isTrue();
+    }
+
+    private BookingResponse createBooking() {
+        return bookingService.createBooking(CreateBookingRequest.builder()
+                .userId(testUser.getId())
+                .sessionId(testSession.getId())
+                .seatIds(List.of(seatId))
+                .build());
+    }
+
+    private boolean await(Duration timeout, BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        while (!condition.getAsBoolean()) {
+            if (System.nanoTime() > deadline) {
+                return false;
+            }
+            Thread.sleep(100);
+        }
+        return true;
+    }
+}
@@ -5,21 +5,39 @@ import org.example.db_project.domain.entity.Hall;
 import org.example.db_project.domain.entity.Movie;
 import org.example.db_project.domain.entity.Session;
 import org.example.db_project.domain.enums.SessionStatus;
+import org.example.db_project.domain.event.SeatAvailabilityChangedEvent;
 import org.example.db_project.domain.repository.HallRepository;
 import org.example.db_project.domain.repository.MovieRepository;
+import org.example.db_project.domain.repository.SeatRepository;
 import org.example.db_project.domain.repository.SessionRepository;
+import org.example.db_project.domain.repository.UserRepository;
+import org.example.db_project.dto.request.CreateBookingRequest;
 import org.example.db_project.dto.request.CreateSessionRequest;
+import org.example.db_project.dto.request.ScheduleSessionsRequest;
+import org.example.db_project.dto.response.ScheduleSessionsResponse;
 import org.example.db_project.dto.response.SessionResponse;
+import org.example.db_project.dto.response.SessionScheduleResult;
 import org.example.db_project.exception.SessionOverlapException;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import jakarta.persistence.EntityManagerFactory;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.assertj.core.api.Assertions.*;
 
@@ -32,6 +50,18 @@ class SessionServiceIntegrationTest extends BaseIntegrationTest {
     private MovieRepository movieRepository;
     @Autowired
     private HallRepository hallRepository;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private BookingService bookingService;
+    @Autowired
+    private SeatRepository seatRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    @Autowired
+    private ScheduleCache scheduleCache;
     private Movie testMovie;
     private Hall testHall;
 
@@ -81,6 +111,73 @@ class SessionServiceIntegrationTest extends BaseIntegrationTest {
                 .isInstanceOf(SessionOverlapException.class);
     }
 
+    @Test
+    @DisplayName("Should schedule sessions in bulk and report conflicts per entry")
+    void shouldScheduleSessionsInBulk() {
+        OffsetDateTime startTime = OffsetDateTime.now().plusDays(2).withHour(10).withMinute(0);
+        SessionResponse existing = sessionService.createSession(sessionRequest(testHall.getId(), startTime));
+        OffsetDateTime afterExisting = existing.getEndTime();
+        ScheduleSessionsRequest request = ScheduleSessionsRequest.builder()
+                .sessions(List.of(
+                        sessionRequest(testHall.getId(), startTime.plusMinutes(30)),
+                        sessionRequest(testHall.getId(), afterExisting),
+                        sessionRequest(testHall.getId(), afterExisting.plusMinutes(10)),
+                        CreateSessionRequest.builder()
+                                .movieId(-1L)
+                                .hallId(testHall.getId())
+                                .startTime(startTime.plusDays(1))
+                                .basePrice(new BigDecimal("15.00"))
+                                .build()))
+                .build();
+
+        ScheduleSessionsResponse response = sessionService.scheduleSessions(request);
+
+        assertThat(response.getCreated()).isEqualTo(1);
+        assertThat(response.getRejected()).isEqualTo(3);
+        List<SessionScheduleResult> results = response.getResults();
+        assertThat(results).extracting(SessionScheduleResult::getOutcome).containsExactly(
+                SessionScheduleResult.Outcome.CONFLICT,
+                SessionScheduleResult.Outcome.CREATED,
+                SessionScheduleResult.Outcome.CONFLICT,
+                SessionScheduleResult.Outcome.INVALID);
+        assertThat(results.get(0).getConflictingSessionIds()).containsExactly(existing.getId());
+        assertThat(results.get(2).getConflictingIndexes()).containsExactly(1);
+        assertThat(results.get(3).getMessage()).isEqualTo("Movie not found with id: -1");
+        Session created = sessionRepository.findById(results.get(1).getSessionId()).orElseThrow();
+        assertThat(created.getStatus()).isEqualTo(SessionStatus.SCHEDULED);
+        assertThat(created.getEndTime().toInstant()).isEqualTo(results.get(1).getEndTime().toInstant());
+        assertThat(sessionService.getSessionById(created.getId()).getBasePrice())
+                .isEqualByComparingTo(new BigDecimal("15.00"));
+    }
+
+    @Test
+    @DisplayName("Should not double-book a hall from concurrent bulk schedules")
+    void shouldNotDoubleBookHallFromConcurrentBulkSchedules() throws Exception {
+        OffsetDateTime startTime = OffsetDateTime.now().plusDays(4).withHour(10).withMinute(0);
+        ScheduleSessionsRequest request = ScheduleSessionsRequest.builder()
+                .sessions(List.of(sessionRequest(testHall.getId(), startTime)))
+                .build();
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<ScheduleSessionsResponse>> responses = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            responses.add(executor.submit(() -> {
+                start.await();
+                return sessionService.scheduleSessions(request);
+            }));
+        }
+        start.countDown();
+        int created = 0;
+        for (Future<ScheduleSessionsResponse> response : responses) {
+            created += response.get().getCreated();
+        }
+        executor.shutdown();
+
+        assertThat(created).isEqualTo(1);
+        assertThat(sessionRepository.findOverlappingSessions(testHall.getId(), startTime, startTime.plusMinutes(1)))
+                .hasSize(1);
+    }
+
     @Test
     @DisplayName("Should get schedule for date")
     void shouldGetScheduleForDate() {
@@ -126,4 +223,121 @@ class SessionServiceIntegrationTest extends BaseIntegrationTest {
                 .isInstanceOf(IllegalStateException.class)
                 .hasMessageContaining("already started");
     }
+
+    @Test
+    @DisplayName("Should build daily schedule with a constant number of queries")
+    void shouldBuildScheduleWithConstantQueryCount() {
+        LocalDate quietDay = LocalDate.now().plusDays(20);
+        LocalDate busyDay = LocalDate.now().plusDays(21);
+        saveSessions(quietDay, 1);
+        saveSessions(busyDay, 5);
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        List<SessionResponse> quietSchedule = sessionService.getScheduleForDate(quietDay);
+        long quietStatements = statistics.getPrepareStatementCount();
+        statistics.clear();
+        List<SessionResponse> busySchedule = sessionService.getScheduleForDate(busyDay);
+        long busyStatements = statistics.getPrepareStatementCount();
+        assertThat(quietSchedule).hasSize(1);
+        assertThat(busySchedule).hasSize(5)
+                .allSatisfy(session -> assertThat(session.getAvailableSeats()).isPositive());
+        assertThat(busyStatements).isEqualTo(quietStatements);
+    }
+
+    @Test
+    @DisplayName("Should serve schedule from cache and keep it in sync with bookings and cancellations")
+    void shouldServeCachedScheduleInSyncWithChanges() {
+        OffsetDateTime startTime = OffsetDateTime.now().plusDays(3).withHour(12).withMinute(0);
+        SessionResponse session = sessionService.createSession(CreateSessionRequest.builder()
+                .movieId(testMovie.getId())
+                .hallId(testHall.getId())
+                .startTime(startTime)
+                .basePrice(new BigDecimal("12.00"))
+                .build());
+        LocalDate date = startTime.toLocalDate();
+        int availableSeats = findInSchedule(date, session.getId()).getAvailableSeats();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        sessionService.getScheduleForDate(date);
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+        List<Long> seatIds = seatRepository.findByHallIdOrdered(testHall.getId()).stream()
+                .limit(2)
+                .map(seat -> seat.getId())
+                .toList();
+        bookingService.createBooking(CreateBookingRequest.builder()
+                .userId(userRepository.findByEmail("admin@cinema.com").orElseThrow().getId())
+                .sessionId(session.getId())
+                .seatIds(seatIds)
+                .build());
+        assertThat(findInSchedule(date, session.getId()).getAvailableSeats()).isEqualTo(availableSeats - 2);
+        eventPublisher.publishEvent(SeatAvailabilityChangedEvent.booked(session.getId(), seatIds));
+        assertThat(findInSchedule(date, session.getId()).getAvailableSeats()).isEqualTo(availableSeats - 2);
+        sessionService.cancelSession(session.getId());
+        assertThat(sessionService.getScheduleForDate(date))
+                .noneMatch(scheduled -> scheduled.getId().equals(session.getId()));
+    }
+
+    @Test
+    @DisplayName("Should cache a schedule loaded while seats of another session changed")
+    void shouldCacheScheduleLoadedDuringUnrelatedSeatChange() {
+        LocalDate date = LocalDate.now().plusYears(50).plusDays(System.nanoTime() % 1000);
+        AtomicInteger loads = new AtomicInteger();
+        scheduleCache.get(date, () -> {
+            loads.incrementAndGet();
+            eventPublisher.publishEvent(SeatAvailabilityChangedEvent.booked(-1L, List.of(-1L)));
+            return List.of(SessionResponse.builder().id(-2L).build());
+        });
+        scheduleCache.get(date, () -> {
+            loads.incrementAndGet();
+            return List.of();
+        });
+        assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    @DisplayName("Should not cache a schedule loaded while seats of one of its sessions changed")
+    void shouldNotCacheScheduleLoadedDuringItsSeatChange() {
+        LocalDate date = LocalDate.now().plusYears(60).plusDays(System.nanoTime() % 1000);
+        AtomicInteger loads = new AtomicInteger();
+        scheduleCache.get(date, () -> {
+            loads.incrementAndGet();
+            eventPublisher.publishEvent(SeatAvailabilityChangedEvent.booked(-2L, List.of(-1L)));
+            return List.of(SessionResponse.builder().id(-2L).build());
+        });
+        scheduleCache.get(date, () -> {
+            loads.incrementAndGet();
+            return List.of();
+        });
+        assertThat(loads).hasValue(2);
+    }
+
+    private SessionResponse findInSchedule(LocalDate date, Long sessionId) {
+        return sessionService.getScheduleForDate(date).stream()
+                .filter(scheduled -> scheduled.getId().equals(sessionId))
+                .findFirst()
+                .orElseThrow();
+    }
+
+    private void saveSessions(LocalDate date, int count) {
+        for (int i = 0; i < count; i++) {
+            OffsetDateTime startTime = date.atTime(9 + i * 3, 0).atOffset(ZoneOffset.UTC);
+            sessionRepository.save(Session.builder()
+                    .movie(testMovie)
+                    .hall(testHall)
+                    .startTime(startTime)
+                    .endTime(startTime.plusHours(2))
+                    .basePrice(new BigDecimal("12.00"))
+                    .status(SessionStatus.SCHEDULED)
+                    .build());
+        }
+    }
+
+    private CreateSessionRequest sessionRequest(Long hallId, OffsetDateTime startTime) {
+        return CreateSessionRequest.builder()
+                .movieId(testMovie.getId())
+                .hallId(hallId)
+                .startTime(startTime)
+                .basePrice(new BigDecimal("15.00"))
+                .build();
+    }
 }
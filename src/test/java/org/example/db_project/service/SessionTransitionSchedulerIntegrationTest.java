@@ -0,0 +1,101 @@
+package org.example.db_project.service;
+
+import org.example.db_project.BaseIntegrationTest;
+import org.example.db_project.domain.entity.Hall;
+import org.example.db_project.domain.entity.Movie;
+import org.example.db_project.domain.entity.Session;
+import org.example.db_project.domain.enums.SessionStatus;
+import org.example.db_project.domain.event.SessionChangedEvent;
+import org.example.db_project.domain.repository.HallRepository;
+import org.example.db_project.domain.repository.MovieRepository;
+import org.example.db_project.domain.repository.SessionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+
+import static org.assertj.core.api.Assertions.*;
+
+class SessionTransitionSchedulerIntegrationTest extends BaseIntegrationTest {
+    @Autowired
+    private SessionTransitionScheduler sessionTransitionScheduler;
+    @Autowired
+    private SessionService sessionService;
+    @Autowired
+    private SessionRepository sessionRepository;
+    @Autowired
+    private MovieRepository movieRepository;
+    @Autowired
+    private HallRepository hallRepository;
+    private Movie testMovie;
+    private Hall testHall;
+
+    @BeforeEach
+    void setUp() {
+        testMovie = movieRepository.findAll().stream().findFirst().orElseThrow();
+        testHall = hallRepository.findAll().stream().findFirst().orElseThrow();
+    }
+
+    @Test
+    @DisplayName("Should start and complete a session at its start and end times")
+    void shouldTransitionSessionOnTime() throws InterruptedException {
+        OffsetDateTime startTime = OffsetDateTime.now().plusSeconds(1);
+        Session session = save(startTime, startTime.plusSeconds(1), SessionStatus.SCHEDULED);
+        sessionTransitionScheduler.onSessionChanged(SessionChangedEvent.of(session));
+
+        assertThat(awaitStatus(session.getId(), SessionStatus.ONGOING, Duration.ofSeconds(10))).isTrue();
+        assertThat(awaitStatus(session.getId(), SessionStatus.COMPLETED, Duration.ofSeconds(10))).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should catch up on transitions missed while the application was down")
+    void shouldCatchUpOnRestore() throws InterruptedException {
+        Session started = save(OffsetDateTime.now().minusMinutes(5), OffsetDateTime.now().plusHours(2),
+                SessionStatus.SCHEDULED);
+        Session ended = save(OffsetDateTime.now().minusHours(3), OffsetDateTime.now().minusHours(1),
+                SessionStatus.ONGOING);
+
+        sessionTransitionScheduler.restoreTransitions();
+
+        assertThat(awaitStatus(started.getId(), SessionStatus.ONGOING, Duration.ofSeconds(10))).isTrue();
+        assertThat(awaitStatus(ended.getId(), SessionStatus.COMPLETED, Duration.ofSeconds(10))).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should only move a session whose time has come")
+    void shouldNotTransitionEarly() {
+        Session session = save(OffsetDateTime.now().plusDays(1), OffsetDateTime.now().plusDays(1).plusHours(2),
+                SessionStatus.SCHEDULED);
+
+        assertThat(sessionService.transitionSession(session.getId(), SessionStatus.ONGOING)).isFalse();
+        assertThat(sessionService.transitionSession(session.getId(), SessionStatus.COMPLETED)).isFalse();
+        assertThat(sessionRepository.findById(session.getId()).orElseThrow().getStatus())
+                .isEqualTo(SessionStatus.SCHEDULED);
+    }
+
+    private Session save(OffsetDateTime startTime, OffsetDateTime endTime, SessionStatus status) {
+        return sessionRepository.save(Session.builder()
+                .movie(testMovie)
+                .hall(testHall)
+                .startTime(startTime)
+                .endTime(endTime)
+                .basePrice(new BigDecimal("10.00"))
+                .status(status)
+                .build());
+    }
+
+    private boolean awaitStatus(Long sessionId, SessionStatus status, Duration timeout) throws InterruptedException {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        while (sessionRepository.findById(sessionId).orElseThrow().getStatus() != status) {
+            if (System.nanoTime() > deadline) {
+                return false;
+            }
+            Thread.sleep(100);
+        }
+        return true;
+    }
+}